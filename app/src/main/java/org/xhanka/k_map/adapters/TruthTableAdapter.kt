@@ -0,0 +1,89 @@
+package org.xhanka.k_map.adapters
+
+import android.graphics.Color
+import android.text.SpannableStringBuilder
+import android.text.Spanned
+import android.text.style.BackgroundColorSpan
+import android.text.style.ForegroundColorSpan
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import android.widget.TextView
+import androidx.recyclerview.widget.RecyclerView
+import org.xhanka.k_map.R
+import org.xhanka.k_map.lib.TruthTableCoverage
+
+/*
+ * One row of the truth table per item: the minterm, its inputs and the value
+ * of every solution of each output. Rows are evaluated when they are bound,
+ * so only the rows on screen are ever computed.
+ */
+class TruthTableAdapter(private val truthTable: TruthTableCoverage) :
+    RecyclerView.Adapter<TruthTableAdapter.RowVH>() {
+
+    private val mintermWidth = (truthTable.rowCount - 1).toString().length
+
+    class RowVH(itemView: View) : RecyclerView.ViewHolder(itemView) {
+        var rowTextView: TextView = itemView.findViewById(R.id.rowTextView)
+    }
+
+    override fun getItemCount(): Int {
+        return truthTable.rowCount
+    }
+
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): RowVH {
+        return RowVH(
+            LayoutInflater.from(parent.context).inflate(
+                R.layout.truth_table_row, parent, false
+            )
+        )
+    }
+
+    override fun onBindViewHolder(holder: RowVH, position: Int) {
+        val n = truthTable.numberOfInVar
+        val row = SpannableStringBuilder()
+        row.append(position.toString().padStart(mintermWidth))
+        row.append("  ")
+        for (i in 0 until n) row.append(if (position and (1 shl (n - i - 1)) != 0) '1' else '0')
+        for (f in 0 until truthTable.numberOfOutVar) {
+            row.append("  ")
+            if (!truthTable.isSolved(f)) continue
+            for (s in 0 until truthTable.getSolutionCount(f)) {
+                val start = row.length
+                row.append(if (truthTable.evaluate(position, f, s)) '1' else '0')
+                if (truthTable.isWrong(position, f, s)) {
+                    row.setSpan(
+                        ForegroundColorSpan(Color.RED), start, row.length,
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
+                    )
+                    row.setSpan(
+                        BackgroundColorSpan(WRONG_BACKGROUND), start, row.length,
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
+                    )
+                }
+                row.append(' ')
+            }
+        }
+        holder.rowTextView.text = row
+    }
+
+    companion object {
+        private val WRONG_BACKGROUND = Color.rgb(0xFA, 0xEC, 0xF0)
+
+        /*
+         * Column titles lined up with the rows
+         */
+        fun header(truthTable: TruthTableCoverage, inputs: Array<String>, outputs: Array<String>): String {
+            val n = truthTable.numberOfInVar
+            val header = StringBuilder()
+            header.append("#".padStart((truthTable.rowCount - 1).toString().length))
+            header.append("  ")
+            for (i in 0 until n) header.append(inputs[i].first())
+            for (f in 0 until truthTable.numberOfOutVar) {
+                header.append("  ")
+                header.append(outputs[f].padEnd(2 * truthTable.getSolutionCount(f)))
+            }
+            return header.toString()
+        }
+    }
+}
@@ -5,10 +5,14 @@ import android.os.Bundle
 import android.view.*
 import androidx.appcompat.app.AlertDialog
 import androidx.fragment.app.Fragment
+import androidx.lifecycle.ViewModelProvider
+import androidx.preference.PreferenceManager
 import androidx.navigation.NavController
 import androidx.navigation.findNavController
 import org.xhanka.k_map.R
 import org.xhanka.k_map.databinding.FragmentHomeBinding
+import org.xhanka.k_map.view.KMapDisplay
+import org.xhanka.k_map.view.KMapView
 
 
 class HomeFragment : Fragment() {
@@ -33,22 +37,39 @@ class HomeFragment : Fragment() {
 
         navController = view.findNavController()
 
+        // shared with the truth table screen
+        val model = ViewModelProvider(requireActivity()).get(KMapViewModel::class.java)
+        // maps too big for a card per cell are always drawn on the canvas
+        var kMap: KMapDisplay =
+            if (PreferenceManager.getDefaultSharedPreferences(view.context)
+                    .getBoolean("canvas_map", false)
+                || model.numberOfInputVariables > KMapView.MAX_VARIABLES
+            ) showCanvas() else binding.kMapView
+        kMap.bind(model, viewLifecycleOwner)
+
         alertDialog = AlertDialog.Builder(view.context)
             .setSingleChoiceItems(
                 R.array.change_variables_options,
-                2
+                model.numberOfInputVariables - 2
             ) { dialog: DialogInterface, which: Int ->
-                when (which) {
-                    0 -> binding.kMapView.changeTo2Variables()
-                    1 -> binding.kMapView.changeTo3Variables()
-                    2 -> binding.kMapView.changeTo4Variables()
-                    3 -> binding.kMapView.changeTo5Variables()
-                    4 -> binding.kMapView.changeTo6Variables()
+                val n = which + 2
+                if (n > KMapView.MAX_VARIABLES && kMap !== binding.kMapCanvasView) {
+                    // the card map would take the changes meant for the canvas
+                    kMap.unbind()
+                    kMap = showCanvas()
+                    kMap.bind(model, viewLifecycleOwner)
                 }
+                kMap.changeToNVariables(n)
                 dialog.dismiss()
             }.setTitle("Change the number of variables").create()
     }
 
+    private fun showCanvas(): KMapDisplay {
+        binding.kMapView.visibility = View.GONE
+        binding.kMapCanvasView.visibility = View.VISIBLE
+        return binding.kMapCanvasView
+    }
+
     override fun onDestroyView() {
         super.onDestroyView()
         _binding = null
@@ -67,6 +88,11 @@ class HomeFragment : Fragment() {
                 return true
             }
 
+            R.id.action_truth_table -> {
+                navController.navigate(R.id.action_navigation_home_to_navigation_truth_table)
+                return true
+            }
+
             R.id.action_change_variables -> {
                 alertDialog.show()
                 return true
@@ -0,0 +1,249 @@
+package org.xhanka.k_map.ui
+
+import android.os.Handler
+import android.os.Looper
+import android.text.SpannableStringBuilder
+import android.text.Spanned
+import android.text.style.ForegroundColorSpan
+import androidx.lifecycle.LiveData
+import androidx.lifecycle.MutableLiveData
+import androidx.lifecycle.ViewModel
+import org.xhanka.k_map.lib.ColoredText
+import org.xhanka.k_map.lib.CoverEngine
+import org.xhanka.k_map.lib.Implicant
+import org.xhanka.k_map.lib.SolutionCache
+import org.xhanka.k_map.lib.SolveBudget
+import org.xhanka.k_map.lib.Solver
+import org.xhanka.k_map.lib.TruthTable
+import org.xhanka.k_map.lib.TruthTableCoverage
+import org.xhanka.k_map.view.KMapView
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+/*
+ * State of the Karnaugh Map: the truth table as bitsets, the background
+ * color of each minterm and the last solution. Taps and solves mark the
+ * minterms whose value or color changed, the view rebinds only those
+ * (see takeChanges).
+ */
+class KMapViewModel : ViewModel() {
+
+    var numberOfInputVariables = 4
+        private set
+    val numberOfOutputVariables = 1
+
+    var values = TruthTable(numberOfInputVariables, numberOfOutputVariables)
+        private set
+    private var colors = IntArray(1 shl numberOfInputVariables) // by minterm
+
+    // minterms to rebind, one bit each
+    private var valueChanged = LongArray(words())
+    private var colorChanged = LongArray(words())
+
+    private val karnaughInOrder = IntArray(Implicant.MAX_IN_VAR) { it }
+    private var generation = 0
+    private var pendingSolve: Future<*>? = null
+
+    private val _changes = MutableLiveData(0)
+    private val _solution = MutableLiveData<CharSequence?>()
+
+    /*
+     * Bumped each time minterms are marked changed
+     */
+    val changes: LiveData<Int> = _changes
+
+    /*
+     * Solution of the map, null until the first solve
+     */
+    val solution: LiveData<CharSequence?> = _solution
+
+    /*
+     * Truth table of the map solved last, for the truth table screen
+     */
+    var solvedTruthTable: TruthTableCoverage? = null
+        private set
+
+    /*
+     * Groups of the solution shown, group j colored ColorMap.color(j),
+     * set before solution changes
+     */
+    var groups: List<Implicant> = emptyList()
+        private set
+
+    private fun words() = ((1 shl numberOfInputVariables) + 63) ushr 6
+
+    /*
+     * Clears the map and makes it one of n variables
+     */
+    fun changeToNVariables(n: Int) {
+        cancelSolve()
+        numberOfInputVariables = n
+        values = TruthTable(n, numberOfOutputVariables)
+        colors = IntArray(1 shl n)
+        valueChanged = LongArray(words())
+        colorChanged = LongArray(words())
+        solvedTruthTable = null
+        groups = emptyList()
+        _solution.value = null
+    }
+
+    fun value(minterm: Int): Char = values.get(minterm, 0)
+
+    fun color(minterm: Int): Int = colors[minterm]
+
+    /*
+     * Cycles the minterm through 1, don't care and 0 and solves the map
+     */
+    fun toggle(minterm: Int) {
+        val value = when (values.get(minterm, 0)) {
+            '1' -> Solver.DONT_CARE_CHAR
+            Solver.DONT_CARE_CHAR -> '0'
+            else -> '1'
+        }
+        for (j in 0 until numberOfOutputVariables) values.set(minterm, j, value)
+        valueChanged[minterm ushr 6] = valueChanged[minterm ushr 6] or (1L shl minterm)
+        _changes.value = _changes.value!! + 1
+
+        // the solve works on its own copy
+        solve(values.copy())
+    }
+
+    /*
+     * Calls visit(minterm, payload) for every minterm changed since the
+     * last call, payload is CHANGED_VALUE, CHANGED_COLOR or both
+     */
+    fun takeChanges(visit: (Int, Int) -> Unit) {
+        for (w in valueChanged.indices) {
+            var word = valueChanged[w] or colorChanged[w]
+            while (word != 0L) {
+                val b = java.lang.Long.numberOfTrailingZeros(word)
+                val bit = 1L shl b
+                var payload = 0
+                if (valueChanged[w] and bit != 0L) payload = payload or CHANGED_VALUE
+                if (colorChanged[w] and bit != 0L) payload = payload or CHANGED_COLOR
+                visit((w shl 6) + b, payload)
+                word = word and bit.inv()
+            }
+            valueChanged[w] = 0L
+            colorChanged[w] = 0L
+        }
+    }
+
+    /*
+     * Solves on the background thread, only the latest tap is shown:
+     * older solves still waiting are cancelled and results of a
+     * superseded generation are dropped
+     */
+    private fun solve(snapshot: TruthTable) {
+        val solveGeneration = cancelSolve()
+        val n = numberOfInputVariables
+        val names = KMapView.INPUT_VARIABLES.copyOf(n)
+        val order = karnaughInOrder.clone()
+        pendingSolve = SOLVE_EXECUTOR.submit(Runnable {
+            try {
+                val solver = Solver(
+                    snapshot,
+                    names,
+                    KMapView.outputVariables(n),
+                    true,
+                    true,
+                    false,
+                    false,  // true
+                    true,
+                    false,
+                    order
+                )
+                // proves the cheapest cost before listing the covers, where
+                // Petrick can spend the whole budget and end with a greedy cover
+                solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND)
+                solver.setBudget(SOLVE_BUDGET)
+                solver.setSolutionLimit(SOLUTION_LIMIT)
+                val solved = SOLUTION_CACHE.solve(solver)
+                val text = toSpannable(solved.coloredSolution)
+
+                // Paint background according to groups of the solution shown
+                val backgrounds = solved.colorMaps.lastOrNull() ?: IntArray(1 shl n)
+                val shownGroups: List<Implicant> = solved.groups.lastOrNull() ?: emptyList()
+                MAIN_HANDLER.post {
+                    if (solveGeneration != generation) return@post
+                    groups = shownGroups
+                    _solution.value = text
+                    solvedTruthTable = solved.truthTable
+                    setColors(backgrounds)
+                }
+            } catch (e: Exception) {
+                e.printStackTrace()
+            }
+        })
+    }
+
+    private fun setColors(backgrounds: IntArray) {
+        var changed = false
+        for (x in backgrounds.indices) {
+            if (colors[x] == backgrounds[x]) continue
+            colors[x] = backgrounds[x]
+            colorChanged[x ushr 6] = colorChanged[x ushr 6] or (1L shl x)
+            changed = true
+        }
+        if (changed) _changes.value = _changes.value!! + 1
+    }
+
+    /*
+     * Drops the solve in progress, if any, and returns the generation
+     * of the next one
+     */
+    private fun cancelSolve(): Int {
+        pendingSolve?.cancel(true)
+        pendingSolve = null
+        return ++generation
+    }
+
+    override fun onCleared() {
+        cancelSolve()
+    }
+
+    companion object {
+        const val CHANGED_VALUE = 1
+        const val CHANGED_COLOR = 2
+
+        /*
+         * Solves run one at a time off the main thread, results are posted
+         * back to it
+         */
+        private val SOLVE_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor()
+        private val MAIN_HANDLER = Handler(Looper.getMainLooper())
+
+        /*
+         * Maps solved lately, toggling a cell back costs no solve
+         */
+        private val SOLUTION_CACHE = SolutionCache(64)
+
+        /*
+         * A tap never waits long for its solution: past this a good cover
+         * is shown instead of the cheapest
+         */
+        private val SOLVE_BUDGET = SolveBudget(2000L, 200_000, 2_000_000)
+
+        /*
+         * Solutions listed per output, branch and bound searches no further
+         */
+        private const val SOLUTION_LIMIT = 16
+
+        /*
+         * Colored runs of the solution as foreground color spans
+         */
+        private fun toSpannable(text: ColoredText): SpannableStringBuilder {
+            val spannable = SpannableStringBuilder(text.toString())
+            for (i in 0 until text.spanCount) {
+                spannable.setSpan(
+                    ForegroundColorSpan(text.getSpanColor(i)),
+                    text.getSpanStart(i),
+                    text.getSpanEnd(i),
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
+                )
+            }
+            return spannable
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.xhanka.k_map.ui
+
+import android.os.Bundle
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import androidx.fragment.app.Fragment
+import androidx.lifecycle.ViewModelProvider
+import androidx.recyclerview.widget.LinearLayoutManager
+import org.xhanka.k_map.R
+import org.xhanka.k_map.adapters.TruthTableAdapter
+import org.xhanka.k_map.databinding.FragmentTruthTableBinding
+import org.xhanka.k_map.view.KMapView
+
+
+class TruthTableFragment : Fragment() {
+
+    private lateinit var binding: FragmentTruthTableBinding
+
+    override fun onCreateView(
+        inflater: LayoutInflater, container: ViewGroup?,
+        savedInstanceState: Bundle?
+    ): View {
+
+        binding = FragmentTruthTableBinding.inflate(inflater, container, false)
+        return binding.root
+
+    }
+
+    override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
+        super.onViewCreated(view, savedInstanceState)
+
+        val model = ViewModelProvider(requireActivity()).get(KMapViewModel::class.java)
+        val truthTable = model.solvedTruthTable
+        if (truthTable == null) {
+            binding.headerTextView.setText(R.string.truth_table_empty)
+            return
+        }
+
+        binding.headerTextView.text = TruthTableAdapter.header(
+            truthTable, KMapView.INPUT_VARIABLES,
+            KMapView.outputVariables(truthTable.numberOfInVar)
+        )
+
+        val recyclerView = binding.recyclerView
+        recyclerView.layoutManager = LinearLayoutManager(view.context)
+        // every row has the same height, no need to measure them
+        recyclerView.setHasFixedSize(true)
+        recyclerView.adapter = TruthTableAdapter(truthTable)
+    }
+
+}
@@ -0,0 +1,418 @@
+package org.xhanka.k_map.view
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.graphics.Canvas
+import android.graphics.Color
+import android.graphics.Paint
+import android.graphics.RectF
+import android.text.Layout
+import android.text.StaticLayout
+import android.text.TextPaint
+import android.util.AttributeSet
+import android.util.TypedValue
+import android.view.GestureDetector
+import android.view.MotionEvent
+import android.view.ScaleGestureDetector
+import android.view.View
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.Observer
+import org.xhanka.k_map.R
+import org.xhanka.k_map.lib.ColorMap
+import org.xhanka.k_map.lib.GroupOutline
+import org.xhanka.k_map.lib.Solver
+import org.xhanka.k_map.ui.KMapViewModel
+
+/**
+ *
+ * Karnaugh Map drawn on a canvas: the labels, the cells with their value and
+ * group color and the solution are painted in one onDraw, taps are mapped
+ * to cells by their position. Same map as KMapView, without a view per cell.
+ * Groups of the solution are also outlined, their rectangles computed once
+ * per solve (see GroupOutline).
+ *
+ * The map can be zoomed with two fingers and panned, only the cells on
+ * screen are drawn: maps of 7 and 8 variables (256 cells) are shown here.
+ */
+class KMapCanvasView : View, KMapDisplay {
+    private lateinit var model: KMapViewModel
+    private var changesObserver: Observer<Int>? = null
+    private var solutionObserver: Observer<CharSequence?>? = null
+    private var grid = KMapGrid.of(4)
+    private var solution: CharSequence = ""
+    private var solutionLayout: StaticLayout? = null
+    private var outlines: List<GroupOutline> = emptyList()
+
+    private val density = resources.displayMetrics.density
+    private val textColor = context.obtainStyledAttributes(
+        intArrayOf(android.R.attr.textColorPrimary)
+    ).let {
+        val color = it.getColor(0, Color.BLACK)
+        it.recycle()
+        color
+    }
+    private val rect = RectF()
+
+    private val fillPaint = Paint(Paint.ANTI_ALIAS_FLAG)
+    private val strokePaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
+        style = Paint.Style.STROKE
+        strokeWidth = density
+    }
+    private val outlinePaint = Paint(Paint.ANTI_ALIAS_FLAG).apply {
+        style = Paint.Style.STROKE
+        strokeWidth = 2 * density
+    }
+    private val valuePaint = TextPaint(Paint.ANTI_ALIAS_FLAG).apply {
+        textAlign = Paint.Align.CENTER
+        color = textColor
+    }
+    private val numberPaint = TextPaint(Paint.ANTI_ALIAS_FLAG).apply {
+        textAlign = Paint.Align.LEFT
+        color = Color.GRAY
+    }
+    private val labelPaint = TextPaint(Paint.ANTI_ALIAS_FLAG).apply {
+        textAlign = Paint.Align.CENTER
+        color = Color.GRAY
+    }
+    private val axisPaint = TextPaint(Paint.ANTI_ALIAS_FLAG).apply {
+        textAlign = Paint.Align.CENTER
+        color = Color.rgb(0xff, 0x66, 0x00)
+    }
+    private val solutionPaint = TextPaint(Paint.ANTI_ALIAS_FLAG).apply {
+        color = textColor
+        textSize = TypedValue.applyDimension(
+            TypedValue.COMPLEX_UNIT_SP, 20f, resources.displayMetrics
+        )
+    }
+
+    // where the grid is, set by layoutGrid()
+    private var cellSize = 0f
+    private var originX = 0f    // left of the grid, labels included
+    private var cellsLeft = 0f  // left of the first column of cells
+    private var cellsTop = 0f   // top of the first row of cells
+    private var gridBottom = 0f // the solution is below, never zoomed
+    private val spacing = 3 * density
+    private val gap = 6 * density // between sub-maps
+
+    // zoom of the grid, a point (x, y) of the grid is drawn at
+    // (panX + zoom * x, panY + zoom * y)
+    private var zoom = 1f
+    private var panX = 0f
+    private var panY = 0f
+
+    private val scaleDetector = ScaleGestureDetector(context, object :
+        ScaleGestureDetector.SimpleOnScaleGestureListener() {
+        override fun onScale(detector: ScaleGestureDetector): Boolean {
+            zoomBy(detector.scaleFactor, detector.focusX, detector.focusY)
+            return true
+        }
+    })
+    private val gestureDetector = GestureDetector(context, object :
+        GestureDetector.SimpleOnGestureListener() {
+        override fun onDown(e: MotionEvent) = true
+
+        override fun onSingleTapUp(e: MotionEvent): Boolean {
+            if (e.y >= gridBottom) return false
+            val cell = cellAt((e.x - panX) / zoom, (e.y - panY) / zoom)
+            if (cell < 0) return false
+            performClick()
+            model.toggle(grid.layout.minterm(cell))
+            return true
+        }
+
+        override fun onScroll(e1: MotionEvent?, e2: MotionEvent, dx: Float, dy: Float): Boolean {
+            panTo(panX - dx, panY - dy)
+            return true
+        }
+    })
+
+    constructor(context: Context?) : super(context!!)
+
+    constructor(context: Context, attrs: AttributeSet?) : super(context, attrs)
+
+    constructor(context: Context, attrs: AttributeSet?, defStyleAttr: Int) : super(
+        context,
+        attrs,
+        defStyleAttr
+    )
+
+    override fun bind(model: KMapViewModel, owner: LifecycleOwner) {
+        this.model = model
+        show(model.numberOfInputVariables)
+
+        changesObserver = Observer<Int> {
+            // one pass redraws every changed cell
+            model.takeChanges { _, _ -> }
+            invalidate()
+        }.also { model.changes.observe(owner, it) }
+        solutionObserver = Observer<CharSequence?> {
+            solution = it ?: context.getString(R.string.click_on_the_squares)
+            layoutSolution()
+            layoutOutlines()
+            invalidate()
+        }.also { model.solution.observe(owner, it) }
+    }
+
+    override fun unbind() {
+        changesObserver?.let { model.changes.removeObserver(it) }
+        solutionObserver?.let { model.solution.removeObserver(it) }
+        changesObserver = null
+        solutionObserver = null
+    }
+
+    override fun changeToNVariables(n: Int) {
+        model.changeToNVariables(n)
+        show(n)
+    }
+
+    private fun show(n: Int) {
+        grid = KMapGrid.of(n)
+        zoom = 1f
+        layoutGrid()
+        layoutOutlines()
+        invalidate()
+    }
+
+    override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
+        super.onSizeChanged(w, h, oldw, oldh)
+        layoutGrid()
+        layoutSolution()
+    }
+
+    /*
+     * Room taken by the gaps between the sub-maps along count rows or
+     * columns, sub of them per sub-map
+     */
+    private fun gaps(count: Int, sub: Int) = if (sub > 0) (count / sub - 1) * gap else 0f
+
+    private fun layoutGrid() {
+        val rows = grid.layout.rows + 1
+        val gapsX = gaps(grid.layout.cols, grid.subCols)
+        val w = (width - paddingLeft - paddingRight).toFloat()
+        val h = (height - paddingTop - paddingBottom).toFloat() -
+                3 * solutionPaint.fontSpacing - gaps(grid.layout.rows, grid.subRows)
+        cellSize = maxOf(0f, minOf((w - gapsX) / grid.spanCount, h / rows))
+        originX = paddingLeft + (w - gapsX - cellSize * grid.spanCount) / 2
+        cellsLeft = if (grid.sideColumn == 0) originX + cellSize else originX
+        cellsTop = paddingTop + cellSize
+        gridBottom = rowTop(grid.layout.rows)
+        panTo(panX, panY)
+
+        valuePaint.textSize = cellSize * 0.45f
+        numberPaint.textSize = cellSize * 0.18f
+        labelPaint.textSize = cellSize * 0.22f
+        axisPaint.textSize = cellSize * 0.26f
+    }
+
+    private fun layoutSolution() {
+        val w = width - paddingLeft - paddingRight
+        solutionLayout = if (w <= 0) null else StaticLayout.Builder
+            .obtain(solution, 0, solution.length, solutionPaint, w)
+            .setAlignment(Layout.Alignment.ALIGN_CENTER)
+            .build()
+    }
+
+    /*
+     * Rectangles of the groups shown, cut between sub-maps
+     */
+    private fun layoutOutlines() {
+        outlines = model.groups.map { GroupOutline.of(it, grid.layout, grid.subRows, grid.subCols) }
+    }
+
+    private fun rowTop(row: Int): Float {
+        var top = cellsTop + row * cellSize
+        if (grid.subRows > 0) top += (row / grid.subRows) * gap
+        return top
+    }
+
+    private fun colLeft(col: Int): Float {
+        var left = cellsLeft + col * cellSize
+        if (grid.subCols > 0) left += (col / grid.subCols) * gap
+        return left
+    }
+
+    /*
+     * Row or column at distance d from the first one, sub per sub-map,
+     * -1 if none
+     */
+    private fun indexAt(d: Float, count: Int, sub: Int): Int {
+        if (d < 0f) return -1
+        var index = 0
+        var rest = d
+        if (sub > 0) {
+            val block = sub * cellSize + gap
+            val b = (d / block).toInt()
+            rest = d - b * block
+            if (rest >= sub * cellSize) return -1 // in a gap
+            index = b * sub
+        }
+        index += (rest / cellSize).toInt()
+        return if (index < count) index else -1
+    }
+
+    /*
+     * Cell under (x, y) of the grid, unzoomed, -1 if none
+     */
+    private fun cellAt(x: Float, y: Float): Int {
+        if (cellSize <= 0f) return -1
+        val col = indexAt(x - cellsLeft, grid.layout.cols, grid.subCols)
+        val row = indexAt(y - cellsTop, grid.layout.rows, grid.subRows)
+        if (col < 0 || row < 0) return -1
+        return row * grid.layout.cols + col
+    }
+
+    private fun zoomBy(factor: Float, focusX: Float, focusY: Float) {
+        val z = (zoom * factor).coerceIn(1f, MAX_ZOOM)
+        // the point under the focus stays there
+        val x = (focusX - panX) / zoom
+        val y = (focusY - panY) / zoom
+        zoom = z
+        panTo(focusX - x * z, focusY - y * z)
+    }
+
+    private fun panTo(x: Float, y: Float) {
+        panX = x.coerceIn(width * (1 - zoom), 0f)
+        panY = y.coerceIn(gridBottom * (1 - zoom), 0f)
+        invalidate()
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    override fun onTouchEvent(event: MotionEvent): Boolean {
+        if (!::model.isInitialized) return false
+        scaleDetector.onTouchEvent(event)
+        if (!scaleDetector.isInProgress) gestureDetector.onTouchEvent(event)
+        return true
+    }
+
+    override fun performClick(): Boolean {
+        return super.performClick()
+    }
+
+    override fun onDraw(canvas: Canvas) {
+        super.onDraw(canvas)
+        if (!::model.isInitialized || cellSize <= 0f) return
+        val layout = grid.layout
+
+        canvas.save()
+        canvas.clipRect(0f, 0f, width.toFloat(), gridBottom)
+        canvas.translate(panX, panY)
+        canvas.scale(zoom, zoom)
+
+        // part of the grid on screen
+        val visibleLeft = -panX / zoom
+        val visibleTop = -panY / zoom
+        val visibleRight = (width - panX) / zoom
+        val visibleBottom = (gridBottom - panY) / zoom
+
+        // column and row labels, the corner holds the names of the variables
+        val labelY = paddingTop + cellSize / 2
+        for (col in 0 until layout.cols)
+            drawCentered(canvas, grid.columnLabels[col], colLeft(col) + 0.5f * cellSize, labelY, labelPaint)
+        val sideX = if (grid.sideColumn == 0) originX else colLeft(layout.cols)
+        for (row in 0 until layout.rows)
+            drawCentered(canvas, grid.rowLabels[row], sideX + cellSize / 2, rowTop(row) + cellSize / 2, labelPaint)
+        drawCentered(canvas, grid.labelTop, sideX + cellSize * 0.65f, paddingTop + cellSize * 0.3f, axisPaint)
+        drawCentered(canvas, grid.labelSide, sideX + cellSize * 0.35f, paddingTop + cellSize * 0.7f, axisPaint)
+
+        // minterm numbers only once big enough to read
+        val numbers = numberPaint.textSize * zoom >= MIN_NUMBER_SIZE * density
+        val corner = 5 * density
+        for (row in 0 until layout.rows) {
+            val top = rowTop(row)
+            if (top + cellSize < visibleTop || top > visibleBottom) continue
+            for (col in 0 until layout.cols) {
+                val left = colLeft(col)
+                if (left + cellSize < visibleLeft || left > visibleRight) continue
+                val cell = row * layout.cols + col
+                val minterm = layout.minterm(cell)
+                rect.set(left, top, left + cellSize - spacing, top + cellSize - spacing)
+
+                val color = model.color(minterm)
+                if (color != Color.TRANSPARENT) {
+                    fillPaint.color = color
+                    canvas.drawRoundRect(rect, corner, corner, fillPaint)
+                }
+                strokePaint.color = strokeColor(cell, minterm)
+                canvas.drawRoundRect(rect, corner, corner, strokePaint)
+
+                if (numbers)
+                    canvas.drawText(
+                        grid.items[grid.positionOfCell[cell]],
+                        rect.left + spacing, rect.top + spacing - numberPaint.ascent(), numberPaint
+                    )
+                when (model.value(minterm)) {
+                    '1' -> drawCentered(canvas, ONE, rect.centerX(), rect.centerY(), valuePaint)
+                    Solver.DONT_CARE_CHAR -> drawCentered(canvas, DONT_CARE, rect.centerX(), rect.centerY(), valuePaint)
+                }
+            }
+        }
+
+        for (j in outlines.indices) drawOutline(canvas, outlines[j], ColorMap.color(j), j)
+        canvas.restore()
+
+        solutionLayout?.let {
+            canvas.save()
+            canvas.translate(paddingLeft.toFloat(), gridBottom + cellSize / 2)
+            it.draw(canvas)
+            canvas.restore()
+        }
+    }
+
+    /*
+     * Outline of group j, inset a little more for each group so outlines
+     * of overlapping groups stay apart. Sides the group goes on past are
+     * drawn beyond the rectangle and clipped, left open.
+     */
+    private fun drawOutline(canvas: Canvas, outline: GroupOutline, color: Int, j: Int) {
+        outlinePaint.color = color or 0xff000000.toInt()
+        val inset = (1 + 2 * (j % 3)) * density
+        val corner = 8 * density
+        val open = cellSize / 2
+        for (i in 0 until outline.count) {
+            val left = colLeft(outline.getCol(i))
+            val top = rowTop(outline.getRow(i))
+            val right = colLeft(outline.getCol(i) + outline.getCols(i) - 1) + cellSize - spacing
+            val bottom = rowTop(outline.getRow(i) + outline.getRows(i) - 1) + cellSize - spacing
+            val sides = outline.getOpenSides(i)
+            rect.set(
+                left + inset - if (sides and GroupOutline.OPEN_LEFT != 0) open else 0f,
+                top + inset - if (sides and GroupOutline.OPEN_TOP != 0) open else 0f,
+                right - inset + if (sides and GroupOutline.OPEN_RIGHT != 0) open else 0f,
+                bottom - inset + if (sides and GroupOutline.OPEN_BOTTOM != 0) open else 0f
+            )
+            canvas.save()
+            canvas.clipRect(left, top, right, bottom)
+            canvas.drawRoundRect(rect, corner, corner, outlinePaint)
+            canvas.restore()
+        }
+    }
+
+    /*
+     * Same borders as the cards of KMapView
+     */
+    private fun strokeColor(cell: Int, minterm: Int): Int {
+        val n = grid.numberOfInputVariables
+        if (n == 5 && cell / grid.layout.cols >= grid.layout.rows / 2) return Color.argb(100, 63, 81, 181)
+        if (n == 6) {
+            return when {
+                minterm < 16 -> Color.argb(255, 245, 0, 87)
+                minterm < 32 -> Color.argb(255, 0, 150, 138)
+                minterm < 48 -> Color.argb(255, 255, 145, 0)
+                else -> Color.argb(255, 63, 81, 181)
+            }
+        }
+        return Color.rgb(0x12, 0x12, 0x12)
+    }
+
+    private fun drawCentered(canvas: Canvas, text: String, x: Float, y: Float, paint: Paint) {
+        canvas.drawText(text, x, y - (paint.descent() + paint.ascent()) / 2, paint)
+    }
+
+    companion object {
+        private const val MAX_ZOOM = 4f
+        private const val MIN_NUMBER_SIZE = 6 // dp
+
+        private const val ONE = "1"
+        private val DONT_CARE = Solver.DONT_CARE_CHAR.toString()
+    }
+}
@@ -0,0 +1,23 @@
+package org.xhanka.k_map.view
+
+import androidx.lifecycle.LifecycleOwner
+import org.xhanka.k_map.ui.KMapViewModel
+
+/*
+ * A view showing the Karnaugh Map held by a KMapViewModel, KMapView or
+ * KMapCanvasView
+ */
+interface KMapDisplay {
+    fun bind(model: KMapViewModel, owner: LifecycleOwner)
+
+    /*
+     * Stops following the model given to bind, for a display no longer
+     * shown: only the visible one may take the changes of the model
+     */
+    fun unbind()
+
+    /*
+     * Clears the map and makes it one of n variables
+     */
+    fun changeToNVariables(n: Int)
+}
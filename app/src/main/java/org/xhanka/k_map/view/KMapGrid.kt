@@ -0,0 +1,156 @@
+package org.xhanka.k_map.view
+
+import org.xhanka.k_map.lib.KarnaughLayout
+
+/*
+ * Grid of the Karnaugh Map of a number of variables, as shown by KMapView
+ * and KMapCanvasView: one row of column labels on top, one column of row
+ * labels (on the left up to 4 variables, on the right for 5 and 6) and the
+ * cells, items[position] being the label or the minterm at each position.
+ *
+ * Maps of 7 and 8 variables are generated: 4x4 sub-maps of the last four
+ * variables, placed in Gray code order of the first ones.
+ */
+internal class KMapGrid private constructor(
+    val numberOfInputVariables: Int,
+    val items: ArrayList<String>,
+    val labelSide: String,
+    val labelTop: String,
+    val spanCount: Int,
+    val sideColumn: Int,
+    val subRows: Int, // rows and columns of a sub-map, 0 if the map has none
+    val subCols: Int
+) {
+
+    // cells numbered row by row and their minterms
+    val layout: KarnaughLayout
+    val cellOfPosition: IntArray
+    val positionOfCell: IntArray
+    val rowLabels: Array<String>
+    val columnLabels: Array<String>
+
+    fun isEmpty(position: Int) = position == sideColumn
+
+    fun isHeader(position: Int) = position < spanCount || position % spanCount == sideColumn
+
+    init {
+        val cellCount = 1 shl numberOfInputVariables
+        cellOfPosition = IntArray(items.size) { -1 }
+        positionOfCell = IntArray(cellCount)
+        val cells = IntArray(cellCount)
+        var cell = 0
+        for (position in items.indices) {
+            if (isHeader(position)) continue
+            cellOfPosition[position] = cell
+            positionOfCell[cell] = position
+            cells[cell++] = items[position].toInt()
+        }
+        layout = KarnaughLayout(numberOfInputVariables, spanCount - 1, cells)
+        rowLabels = Array(layout.rows) { items[(it + 1) * spanCount + sideColumn] }
+        columnLabels = Array(layout.cols) { items[if (sideColumn == 0) it + 1 else it] }
+    }
+
+    companion object {
+        private val a6Variables = ArrayList(
+            listOf(
+                "110", "111", "101", "100", "010", "011", "001", "000", "",
+                "40", "44", "36", "32", "8", "12", "4", "0", "000",
+                "41", "45", "37", "33", "9", "13", "5", "1", "001",
+                "43", "47", "39", "35", "11", "15", "7", "3", "011",
+                "42", "46", "38", "34", "10", "14", "6", "2", "010",
+                "58", "62", "54", "50", "26", "30", "22", "18", "110",
+                "59", "63", "55", "51", "27", "31", "23", "19", "111",
+                "57", "61", "53", "49", "25", "29", "21", "17", "101",
+                "56", "60", "52", "48", "24", "28", "20", "16", "100"
+            )
+        )
+        private val a5Variables = ArrayList(
+            listOf(
+                "10", "11", "01", "00", "",
+                "8", "12", "4", "0", "000",
+                "9", "13", "5", "1", "001",
+                "11", "15", "7", "3", "011",
+                "10", "14", "6", "2", "010",
+                "26", "30", "22", "18", "110",
+                "27", "31", "23", "19", "111",
+                "25", "29", "21", "17", "101",
+                "24", "28", "20", "16", "100"
+            )
+        )
+        private val a4Variables = ArrayList(
+            listOf(
+                "", "00", "01", "11", "10",
+                "00", "0", "1", "3", "2",
+                "01", "4", "5", "7", "6",
+                "11", "12", "13", "15", "14",
+                "10", "8", "9", "11", "10"
+            )
+        )
+        private val a3Variables = ArrayList(
+            listOf(
+                "", "00", "01", "11", "10",
+                "0", "0", "1", "3", "2",
+                "1", "4", "5", "7", "6"
+            )
+        )
+        private val a2Variables = ArrayList(
+            listOf(
+                "", "00", "01", "11", "10", "", "0", "1", "3", "2"
+            )
+        )
+
+        const val MAX_VARIABLES = 8
+
+        private val GRIDS = arrayOfNulls<KMapGrid>(MAX_VARIABLES + 1)
+
+        fun of(n: Int): KMapGrid {
+            GRIDS[n]?.let { return it }
+            val grid = when (n) {
+                8, 7 -> generate(n)
+                6 -> KMapGrid(6, a6Variables, "BEF", "ACD", 9, 8, 4, 0)
+                5 -> KMapGrid(5, a5Variables, "CDE", "AB", 5, 4, 4, 0)
+                4 -> KMapGrid(4, a4Variables, "AB", "CD", 5, 0, 0, 0)
+                3 -> KMapGrid(3, a3Variables, "A", "BC", 5, 0, 0, 0)
+                else -> KMapGrid(2, a2Variables, "", "AB", 5, 0, 0, 0)
+            }
+            GRIDS[n] = grid
+            return grid
+        }
+
+        private fun gray(i: Int) = i xor (i ushr 1)
+
+        private fun bits(x: Int, count: Int) =
+            Integer.toBinaryString(x or (1 shl count)).substring(1)
+
+        /*
+         * Map of n > 4 variables, row labels on the left: the first
+         * variables pick the sub-map (rows then columns), the last four
+         * the cell in it like a map of 4 variables
+         */
+        private fun generate(n: Int): KMapGrid {
+            val outer = n - 4
+            val outerRowBits = outer / 2
+            val outerColBits = outer - outerRowBits
+            val rows = 4 shl outerRowBits
+            val cols = 4 shl outerColBits
+            val names = KMapView.INPUT_VARIABLES
+
+            val rowLabels = Array(rows) { bits(gray(it / 4), outerRowBits) + bits(gray(it % 4), 2) }
+            val items = ArrayList<String>((rows + 1) * (cols + 1))
+            items.add("")
+            for (col in 0 until cols) items.add(bits(gray(col / 4), outerColBits) + bits(gray(col % 4), 2))
+            for (row in 0 until rows) {
+                items.add(rowLabels[row])
+                val high = (gray(row / 4) shl (n - outerRowBits)) or (gray(row % 4) shl 2)
+                for (col in 0 until cols)
+                    items.add((high or (gray(col / 4) shl 4) or gray(col % 4)).toString())
+            }
+
+            val labelSide = names.sliceArray(0 until outerRowBits).joinToString("") +
+                    names[n - 4] + names[n - 3]
+            val labelTop = names.sliceArray(outerRowBits until outer).joinToString("") +
+                    names[n - 2] + names[n - 1]
+            return KMapGrid(n, items, labelSide, labelTop, cols + 1, 0, 4, 4)
+        }
+    }
+}
@@ -4,8 +4,6 @@ import android.annotation.SuppressLint
 import android.content.Context
 import android.graphics.Color
 import android.graphics.Rect
-import android.os.Build
-import android.text.Html
 import android.util.AttributeSet
 import android.view.LayoutInflater
 import android.view.View
@@ -13,14 +11,16 @@ import android.view.ViewGroup
 import android.widget.FrameLayout
 import android.widget.LinearLayout
 import android.widget.TextView
-import androidx.core.text.HtmlCompat
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.Observer
 import androidx.recyclerview.widget.GridLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import androidx.recyclerview.widget.RecyclerView.ItemDecoration
 import com.google.android.material.card.MaterialCardView
 import org.xhanka.k_map.R
-import org.xhanka.k_map.lib.Implicant
+import org.xhanka.k_map.lib.KarnaughLayout
 import org.xhanka.k_map.lib.Solver
+import org.xhanka.k_map.ui.KMapViewModel
 import java.util.*
 
 /**
@@ -28,9 +28,12 @@ import java.util.*
  * Class for implementing the Karnaugh Map used for boolean functions reduction
  * @author Dlamini Lindelwa <A mailto:sfisolindelwa@gmail.com>[sfisolindelwa@gmail.com]</A>
  */
-class KMapView : FrameLayout {
+class KMapView : FrameLayout, KMapDisplay {
     private lateinit var recyclerView: RecyclerView
     private lateinit var textView: TextView
+    private lateinit var model: KMapViewModel
+    private var changesObserver: Observer<Int>? = null
+    private var solutionObserver: Observer<CharSequence?>? = null
 
     constructor(context: Context?) : super(context!!)
 
@@ -58,99 +61,58 @@ class KMapView : FrameLayout {
         textView = view.findViewById(R.id.display)
 
         // truthTableButton = view.findViewById(R.id.truthTableButton)
+    }
+
+    /*
+     * Shows the map held by model, only the cells it reports changed are
+     * bound again
+     */
+    override fun bind(model: KMapViewModel, owner: LifecycleOwner) {
+        this.model = model
+        show(model.numberOfInputVariables)
+
+        changesObserver = Observer<Int> {
+            val adapter = recyclerView.adapter as Adapter? ?: return@Observer
+            model.takeChanges { minterm, payload -> adapter.notifyMintermChanged(minterm, payload) }
+        }.also { model.changes.observe(owner, it) }
+        solutionObserver = Observer<CharSequence?> {
+            if (it == null) textView.setText(R.string.click_on_the_squares)
+            else textView.text = it
+        }.also { model.solution.observe(owner, it) }
+    }
 
-        recyclerView.adapter = Adapter(
-            a4Variables, textView, 4, "AB", "CD"
-        )
+    override fun unbind() {
+        changesObserver?.let { model.changes.removeObserver(it) }
+        solutionObserver?.let { model.solution.removeObserver(it) }
+        changesObserver = null
+        solutionObserver = null
     }
 
     internal interface CLICK {
-        fun click(textView: TextView, number: String?)
+        fun click(minterm: Int)
     }
 
     private class Adapter(
-        strings: ArrayList<String>,
-        textView: TextView?,
-        numberOfInputVariables: Int,
-        textSide: String,
-        textTop: String
+        val grid: KMapGrid,
+        val model: KMapViewModel
     ) : RecyclerView.Adapter<RecyclerView.ViewHolder>(), CLICK {
 
-        var stringArrayList: ArrayList<String>
-        var textViewList: MutableList<TextView> = ArrayList()
-        var displayTextView: TextView?
-        var labelTop: String
-        var labelSide: String
-        var numberOfInputVariables: Int
-        val numberOfOutputVariables = 1
-        var charValues: Array<CharArray>
-        var inputVariablesNames: Array<String?>
-        var karnaughInOrder = IntArray(Implicant.MAX_IN_VAR)
-
-        override fun click(textView: TextView, number: String?) {
-            when (textView.text) {
-                "1" -> textView.text = Solver.DONT_CARE_CHAR.toString()
-                Solver.DONT_CARE_CHAR.toString() -> textView.text = ""
-                else -> textView.text = "1"
-            }
+        var stringArrayList: ArrayList<String> = grid.items
+        var labelTop: String = grid.labelTop
+        var labelSide: String = grid.labelSide
+        var numberOfInputVariables: Int = grid.numberOfInputVariables
 
-            textViewList.sortWith { o1: TextView, o2: TextView ->
-                o1.id.compareTo(o2.id)
-            }
+        // cells of the grid, numbered row by row, and their minterms
+        val layout: KarnaughLayout = grid.layout
+        val cellOfPosition: IntArray = grid.cellOfPosition
+        val positionOfCell: IntArray = grid.positionOfCell
 
-            // initialize charValues with data
-            for (i in 0 until (1 shl numberOfInputVariables)) {
-                for (j in 0 until numberOfOutputVariables) {
-                    var value = "0"
-                    try {
-                        value = textViewList[i].text.toString()
-                    } catch (ignore: IndexOutOfBoundsException) {
-                        // An indexOutOfBoundsException can occur if texView has not been inflated yet
-                        // to handle this, we assume a view not inflated holds a zero minterm
-                    }
-
-                    when (value) {
-                        "1" -> charValues[i][j] = '1'
-                        Solver.DONT_CARE_CHAR.toString() -> charValues[i][j] = Solver.DONT_CARE_CHAR
-                        else -> charValues[i][j] = '0'
-                    }
-                }
-            }
-            try {
-                val solver = Solver(
-                    charValues,
-                    numberOfInputVariables,
-                    inputVariablesNames,
-                    numberOfOutputVariables,
-                    OUTPUT_VARIABLES,
-                    true,
-                    true,
-                    false,
-                    false,  // true
-                    true,
-                    false,
-                    karnaughInOrder
-                )
-                solver.Solve()
-                solver.run()
-
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-                    displayTextView!!.text =
-                        Html.fromHtml(solver.solution, Html.FROM_HTML_MODE_LEGACY)
-                } else displayTextView!!.text =
-                    HtmlCompat.fromHtml(solver.solution, HtmlCompat.FROM_HTML_MODE_COMPACT)
-
-                // Paint background according to groups
-                val colors = solver.borD_COLORS
-                for (i in colors.first.indices) {
-                    val id = colors.first[i]
-                    val color = colors.second[i]
-                    textViewList[id].setBackgroundColor(color)
-                }
-                //truthTable = solver.getTruthTableHTML();
-            } catch (e: Exception) {
-                e.printStackTrace()
-            }
+        override fun click(minterm: Int) {
+            model.toggle(minterm)
+        }
+
+        fun notifyMintermChanged(minterm: Int, payload: Int) {
+            notifyItemChanged(positionOfCell[layout.cell(minterm)], payload)
         }
 
         override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): RecyclerView.ViewHolder {
@@ -175,6 +137,38 @@ class KMapView : FrameLayout {
             }
         }
 
+        /*
+         * Payloads come from notifyMintermChanged, the cell is known and
+         * only its value or color is set again
+         */
+        override fun onBindViewHolder(
+            holder: RecyclerView.ViewHolder,
+            position: Int,
+            payloads: MutableList<Any>
+        ) {
+            if (payloads.isEmpty() || holder !is ContentViewHolder) {
+                onBindViewHolder(holder, position)
+                return
+            }
+            val minterm = layout.minterm(cellOfPosition[position])
+            var changed = 0
+            for (payload in payloads) changed = changed or payload as Int
+            if (changed and KMapViewModel.CHANGED_VALUE != 0) bindValue(holder, minterm)
+            if (changed and KMapViewModel.CHANGED_COLOR != 0) bindColor(holder, minterm)
+        }
+
+        private fun bindValue(holder: ContentViewHolder, minterm: Int) {
+            holder.contentContent.text = when (model.value(minterm)) {
+                '1' -> "1"
+                Solver.DONT_CARE_CHAR -> Solver.DONT_CARE_CHAR.toString()
+                else -> ""
+            }
+        }
+
+        private fun bindColor(holder: ContentViewHolder, minterm: Int) {
+            holder.contentContent.setBackgroundColor(model.color(minterm))
+        }
+
         override fun onBindViewHolder(holder: RecyclerView.ViewHolder, position: Int) {
             val viewType = getItemViewType(position)
 
@@ -210,17 +204,14 @@ class KMapView : FrameLayout {
 
         @SuppressLint("ResourceType")
         fun configureContent(holder: ContentViewHolder, position: Int) {
+            val cell = cellOfPosition[position]
+            val minterm = layout.minterm(cell)
             holder.contentNumber.text = stringArrayList[position]
-            holder.contentContent.id = stringArrayList[position].toInt()
+            holder.contentContent.id = minterm
+            bindValue(holder, minterm)
+            bindColor(holder, minterm)
 
-            if (!textViewList.contains(holder.contentContent)) textViewList.add(holder.contentContent)
-
-            holder.contentContainer.setOnClickListener {
-                click(
-                    holder.contentContent,
-                    stringArrayList[position]
-                )
-            }
+            holder.contentContainer.setOnClickListener { click(minterm) }
 
             // todo move to viewHolder
             if (numberOfInputVariables >= 5) holder.contentContent.setPadding(4, 4, 4, 4)
@@ -253,15 +244,8 @@ class KMapView : FrameLayout {
         }
 
         override fun getItemViewType(position: Int): Int {
-            // configure for less than 5 variables
-
-            // configure empty view
-            if (numberOfInputVariables < 5 && position == 0 || numberOfInputVariables == 5 && position == 4 || numberOfInputVariables > 5 && position == 8) return EMPTY_VIEW
-
-            // configure header view
-            if (if (numberOfInputVariables <= 5) position < 5 else position < 9) return HEADER_VIEW // top header
-            if (numberOfInputVariables < 5 && position % 5 == 0 || numberOfInputVariables == 5 && (position + 1) % 5 == 0) return HEADER_VIEW // side header for <= 5 variables
-            return if (numberOfInputVariables > 5 && (position + 1) % 9 == 0) HEADER_VIEW else CONTENT_VIEW // side header
+            if (grid.isEmpty(position)) return EMPTY_VIEW
+            return if (grid.isHeader(position)) HEADER_VIEW else CONTENT_VIEW
         }
 
         class EmptyViewHolder(itemView: View) : RecyclerView.ViewHolder(itemView) {
@@ -286,79 +270,35 @@ class KMapView : FrameLayout {
 
         init {
             setHasStableIds(true)
-            stringArrayList = strings
-            displayTextView = textView
-            labelTop = textTop
-            labelSide = textSide
-            this.numberOfInputVariables = numberOfInputVariables
-            charValues =
-                Array(1 shl numberOfInputVariables) { CharArray(numberOfOutputVariables) } // {'0'}, {'0'}, {'0'}, {'1'}, {'1'}, {'1'}, {'1'}, {'1'}, // {'0'}, {'0'}, {'0'}, {'1'}, {'1'}, {'1'}, {'1'}, {'1'}};
-            for (i in 0 until Implicant.MAX_IN_VAR) karnaughInOrder[i] = i
-            inputVariablesNames = arrayOfNulls(numberOfInputVariables)
-            System.arraycopy(INPUT_VARIABLES, 0, inputVariablesNames, 0, numberOfInputVariables)
         }
     }
 
-    fun changeTo6Variables() {
-        (Objects.requireNonNull(recyclerView.layoutManager) as GridLayoutManager).spanCount =
-            9
-        recyclerView.adapter = Adapter(
-            a6Variables,
-            textView,
-            6,
-            "BEF",
-            "ACD"
-        )
-        recyclerView.setItemViewCacheSize(a6Variables.size)
+    /*
+     * One card per cell, up to MAX_VARIABLES; larger maps are drawn by
+     * KMapCanvasView
+     */
+    override fun changeToNVariables(n: Int) {
+        require(n <= MAX_VARIABLES) { "KMapView shows maps of up to $MAX_VARIABLES variables" }
+        model.changeToNVariables(n)
+        show(n)
     }
 
-    fun changeTo5Variables() {
-        (Objects.requireNonNull(recyclerView.layoutManager) as GridLayoutManager).spanCount =
-            5
-        recyclerView.adapter = Adapter(
-            a5Variables,
-            textView,
-            5,
-            "CDE",
-            "AB"
-        )
-        recyclerView.setItemViewCacheSize(a5Variables.size)
-    }
+    fun changeTo6Variables() = changeToNVariables(6)
 
-    fun changeTo4Variables() {
-        (Objects.requireNonNull(recyclerView.layoutManager) as GridLayoutManager).spanCount = 5
-        recyclerView.adapter = Adapter(
-            a4Variables,
-            textView,
-            4,
-            "AB",
-            "CD"
-        )
-        recyclerView.setItemViewCacheSize(a4Variables.size)
-    }
+    fun changeTo5Variables() = changeToNVariables(5)
 
-    fun changeTo3Variables() {
-        (Objects.requireNonNull(recyclerView.layoutManager) as GridLayoutManager).spanCount = 5
-        recyclerView.adapter = Adapter(
-            a3Variables,
-            textView,
-            3,
-            "A",
-            "BC"
-        )
-        recyclerView.setItemViewCacheSize(a3Variables.size)
-    }
+    fun changeTo4Variables() = changeToNVariables(4)
 
-    fun changeTo2Variables() {
+    fun changeTo3Variables() = changeToNVariables(3)
+
+    fun changeTo2Variables() = changeToNVariables(2)
+
+    private fun show(n: Int) {
+        val grid = KMapGrid.of(n)
         (Objects.requireNonNull(recyclerView.layoutManager) as GridLayoutManager).spanCount =
-            5
-        recyclerView.adapter = Adapter(
-            a2Variables,
-            textView,
-            2,
-            "",
-            "AB"
-        )
+            grid.spanCount
+        recyclerView.adapter = Adapter(grid, model)
+        if (n > 2) recyclerView.setItemViewCacheSize(grid.items.size)
     }
 
     private class SpaceDecorator : ItemDecoration() {
@@ -385,54 +325,15 @@ class KMapView : FrameLayout {
         private val HEADER_VIEW = 1
         private val CONTENT_VIEW = 2
 
-        private val a6Variables = ArrayList(
-            listOf(
-                "110", "111", "101", "100", "010", "011", "001", "000", "",
-                "40", "44", "36", "32", "8", "12", "4", "0", "000",
-                "41", "45", "37", "33", "9", "13", "5", "1", "001",
-                "43", "47", "39", "35", "11", "15", "7", "3", "011",
-                "42", "46", "38", "34", "10", "14", "6", "2", "010",
-                "58", "62", "54", "50", "26", "30", "22", "18", "110",
-                "59", "63", "55", "51", "27", "31", "23", "19", "111",
-                "57", "61", "53", "49", "25", "29", "21", "17", "101",
-                "56", "60", "52", "48", "24", "28", "20", "16", "100"
-            )
-        )
-        private val a5Variables = ArrayList(
-            listOf(
-                "10", "11", "10", "00", "",
-                "8", "12", "4", "0", "000",
-                "9", "13", "5", "1", "001",
-                "11", "15", "7", "3", "011",
-                "10", "14", "6", "2", "010",
-                "26", "30", "22", "18", "110",
-                "27", "31", "23", "19", "111",
-                "25", "29", "21", "17", "101",
-                "24", "28", "20", "16", "100"
-            )
-        )
-        private val a4Variables = ArrayList(
-            listOf(
-                "", "00", "01", "11", "10",
-                "00", "0", "1", "3", "2",
-                "01", "4", "5", "7", "6",
-                "11", "12", "13", "15", "14",
-                "10", "8", "9", "11", "10"
-            )
-        )
-        private val a3Variables = ArrayList(
-            listOf(
-                "", "00", "01", "11", "10",
-                "0", "0", "1", "3", "2",
-                "1", "4", "5", "7", "6"
-            )
-        )
-        private val a2Variables = ArrayList(
-            listOf(
-                "", "00", "01", "11", "10", "", "0", "1", "3", "2"
-            )
-        )
-        val INPUT_VARIABLES = arrayOf("A", "B", "C", "D", "E", "F")
+        const val MAX_VARIABLES = 6
+
+        val INPUT_VARIABLES = arrayOf("A", "B", "C", "D", "E", "F", "G", "H")
         val OUTPUT_VARIABLES = arrayOf("G")
+
+        /*
+         * G is an input of maps of 7 and 8 variables, their output is Y
+         */
+        fun outputVariables(numberOfInputVariables: Int): Array<String> =
+            if (numberOfInputVariables > MAX_VARIABLES) arrayOf("Y") else OUTPUT_VARIABLES
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ * The cover engines on cyclic cores small enough for Petrick's product,
+ * where a regression of the expansion shows first
+ */
+package org.xhanka.k_map.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xhanka.k_map.lib.CoverEngine;
+import org.xhanka.k_map.lib.Solver;
+import org.xhanka.k_map.lib.TruthTable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CyclicCoreBench {
+
+    @Param({"3", "4", "5"})
+    public int inputs;
+
+    @Param({"PETRICK", "BRANCH_AND_BOUND", "GREEDY"})
+    public CoverEngine engine;
+
+    private TruthTable table;
+
+    @Setup
+    public void setup() {
+        table = Tables.cyclic(inputs);
+    }
+
+    @Benchmark
+    public Solver solve() {
+        Solver solver = Tables.solver(table, true);
+        solver.setCoverEngine(engine);
+        solver.Solve();
+        return solver;
+    }
+}
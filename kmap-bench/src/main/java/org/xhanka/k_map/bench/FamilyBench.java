@@ -0,0 +1,67 @@
+/*
+ * Solve() on the hard families of Tables: parity (no merges at all),
+ * majority (many overlapping primes) and a cyclic core (no essential prime
+ * implicant). The cover is searched by branch and bound, Petrick's product
+ * of a cyclic core that size does not finish; CyclicCoreBench compares the
+ * two on small cores.
+ */
+package org.xhanka.k_map.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xhanka.k_map.lib.CoverEngine;
+import org.xhanka.k_map.lib.Solver;
+import org.xhanka.k_map.lib.TruthTable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FamilyBench {
+
+    @Param({"parity", "majority", "cyclic"})
+    public String family;
+
+    @Param({"4", "8", "12"})
+    public int inputs;
+
+    private TruthTable table;
+
+    @Setup
+    public void setup() {
+        switch (family) {
+            case "parity":
+                table = Tables.parity(inputs);
+                break;
+            case "majority":
+                table = Tables.majority(inputs);
+                break;
+            case "cyclic":
+                table = Tables.cyclic(inputs);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown family " + family);
+        }
+    }
+
+    @Benchmark
+    public Solver solve() {
+        Solver solver = Tables.solver(table, true);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.Solve();
+        return solver;
+    }
+}
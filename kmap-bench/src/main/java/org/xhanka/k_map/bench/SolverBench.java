@@ -0,0 +1,102 @@
+/*
+ * Solve() and the formatting after it, timed apart, on random tables of 2
+ * to 8 inputs over densities, don't care ratios and both forms, with the
+ * first or all minimal solutions and either exact engine. Under the app's
+ * budget, so a table listing all solutions with Petrick that used to end
+ * and no longer does shows as the timeout. Larger tables are in
+ * SparseSolverBench: dense random tables past 8 inputs are out of reach
+ * of an exact cover.
+ */
+package org.xhanka.k_map.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xhanka.k_map.lib.CoverEngine;
+import org.xhanka.k_map.lib.Solver;
+import org.xhanka.k_map.lib.TruthTable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBench {
+
+    @Param({"2", "4", "6", "8"})
+    public int inputs;
+
+    @Param({"0.1", "0.3", "0.5"})
+    public double density;
+
+    @Param({"0.0", "0.2"})
+    public double dontCare;
+
+    @Param({"true", "false"})
+    public boolean sop;
+
+    @Param({"false", "true"})
+    public boolean all;
+
+    @Param({"PETRICK", "BRANCH_AND_BOUND"})
+    public CoverEngine engine;
+
+    private TruthTable table;
+
+    @Setup
+    public void setup() {
+        table = Tables.random(inputs, density, dontCare, sop, Tables.SEED);
+    }
+
+    /*
+     * A solver whose Solve() is done, once per iteration: Format() starts
+     * over at every call
+     */
+    @State(Scope.Thread)
+    public static class Solved {
+        Solver solver;
+
+        @Setup(Level.Iteration)
+        public void solve(SolverBench bench) {
+            solver = bench.solver();
+            solver.Solve();
+        }
+    }
+
+    private Solver solver() {
+        Solver solver = Tables.solver(table, sop, all);
+        solver.setCoverEngine(engine);
+        solver.setBudget(Tables.BUDGET);
+        return solver;
+    }
+
+    @Benchmark
+    public Solver solve() {
+        Solver solver = solver();
+        solver.Solve();
+        return solver;
+    }
+
+    @Benchmark
+    public Solver format(Solved solved) {
+        solved.solver.Format();
+        return solved.solver;
+    }
+
+    @Benchmark
+    public String truthTable(Solved solved) {
+        return solved.solver.getTruthTableHTML();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Same as SolverBench from 10 to 16 inputs, on sparse tables where prime
+ * generation over the whole space dominates and the cover stays small
+ * enough to list all solutions
+ */
+package org.xhanka.k_map.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xhanka.k_map.lib.CoverEngine;
+import org.xhanka.k_map.lib.Solver;
+import org.xhanka.k_map.lib.TruthTable;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparseSolverBench {
+
+    @Param({"10", "12", "14", "16"})
+    public int inputs;
+
+    @Param({"0.01", "0.05"})
+    public double density;
+
+    @Param({"0.0", "0.1"})
+    public double dontCare;
+
+    @Param({"true", "false"})
+    public boolean sop;
+
+    @Param({"false", "true"})
+    public boolean all;
+
+    @Param({"PETRICK", "BRANCH_AND_BOUND"})
+    public CoverEngine engine;
+
+    private TruthTable table;
+
+    @Setup
+    public void setup() {
+        table = Tables.random(inputs, density, dontCare, sop, Tables.SEED);
+    }
+
+    @State(Scope.Thread)
+    public static class Solved {
+        Solver solver;
+
+        @Setup(Level.Iteration)
+        public void solve(SparseSolverBench bench) {
+            solver = bench.solver();
+            solver.Solve();
+        }
+    }
+
+    private Solver solver() {
+        Solver solver = Tables.solver(table, sop, all);
+        solver.setCoverEngine(engine);
+        solver.setBudget(Tables.BUDGET);
+        return solver;
+    }
+
+    @Benchmark
+    public Solver solve() {
+        Solver solver = solver();
+        solver.Solve();
+        return solver;
+    }
+
+    @Benchmark
+    public Solver format(Solved solved) {
+        solved.solver.Format();
+        return solved.solver;
+    }
+}
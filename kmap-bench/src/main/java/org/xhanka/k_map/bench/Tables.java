@@ -0,0 +1,100 @@
+/*
+ * class Tables builds the truth tables of the benchmarks: random tables of
+ * a given density from a fixed seed, so every run solves the same tables,
+ * and families known to be hard for Quine–McCluskey and Petrick.
+ */
+package org.xhanka.k_map.bench;
+
+import org.xhanka.k_map.lib.SolveBudget;
+import org.xhanka.k_map.lib.Solver;
+import org.xhanka.k_map.lib.TruthTable;
+
+import java.util.Random;
+
+final class Tables {
+
+    static final long SEED = 0x6b6d6170L;
+
+    /*
+     * The app's budget: a table out of reach of the engine times the
+     * fallback instead of never ending
+     */
+    static final SolveBudget BUDGET = new SolveBudget(2000L, 200_000, 2_000_000);
+
+    private Tables() {
+    }
+
+    /*
+     * Random table of n inputs: a minterm is in the function with
+     * probability density (ones for sum of products, zeros for product of
+     * sums, the side that is minimized), otherwise a don't care with
+     * probability dontCare
+     */
+    static TruthTable random(int n, double density, double dontCare, boolean sop, long seed) {
+        Random r = new Random(seed ^ ((long) n << 32));
+        char in = sop ? '1' : '0';
+        char out = sop ? '0' : '1';
+        TruthTable t = new TruthTable(n, 1);
+        for (int x = 0; x < 1 << n; x++) {
+            char value = out;
+            if (r.nextDouble() < density)
+                value = in;
+            else if (r.nextDouble() < dontCare)
+                value = Solver.DONT_CARE_CHAR;
+            t.set(x, 0, value);
+        }
+        return t;
+    }
+
+    /*
+     * Odd number of ones: 2^(n-1) minterms, none adjacent, every one a
+     * prime implicant
+     */
+    static TruthTable parity(int n) {
+        TruthTable t = new TruthTable(n, 1);
+        for (int x = 0; x < 1 << n; x++)
+            t.set(x, 0, (Integer.bitCount(x) & 1) == 1 ? '1' : '0');
+        return t;
+    }
+
+    /*
+     * More ones than zeros: many large overlapping prime implicants
+     */
+    static TruthTable majority(int n) {
+        TruthTable t = new TruthTable(n, 1);
+        for (int x = 0; x < 1 << n; x++)
+            t.set(x, 0, 2 * Integer.bitCount(x) > n ? '1' : '0');
+        return t;
+    }
+
+    /*
+     * Every minterm but all zeros and all ones: no essential prime
+     * implicant, the whole chart is a cyclic core left to the cover
+     */
+    static TruthTable cyclic(int n) {
+        int all = (1 << n) - 1;
+        TruthTable t = new TruthTable(n, 1);
+        for (int x = 0; x <= all; x++)
+            t.set(x, 0, x != 0 && x != all ? '1' : '0');
+        return t;
+    }
+
+    static Solver solver(TruthTable t, boolean sop) {
+        return solver(t, sop, false);
+    }
+
+    /*
+     * all: every minimal solution, not only the first one found
+     */
+    static Solver solver(TruthTable t, boolean sop, boolean all) {
+        int n = t.getNumberOfInVar();
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++)
+            names[i] = String.valueOf((char) ('A' + i));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        return new Solver(t, names, new String[]{"F"}, sop, all, true,
+                false, false, false, order);
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * class BranchAndBoundCover finds the cheapest sets of prime implicants
+ * covering every column (minterm) of a prime implicant chart, without
+ * expanding Petrick's product of sums.
+ *
+ * The search branches on the uncovered column with the fewest prime
+ * implicants left. The k-th prime implicant tried for a column excludes the
+ * ones tried before it, so each cover is reached only once. A branch is cut
+ * when its cost plus a lower bound, taken from a set of uncovered columns
+ * that share no prime implicant, cannot reach the best cost found so far.
+ * Under a SolveBudget the search may stop early with the best covers found
+ * up to then (see isComplete). Once the cheapest cost is known, covers()
+ * walks the same search one cover at a time.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class BranchAndBoundCover {
+
+    private final int primes;
+    private final int columns;
+    private final int pw;            // words of a set of prime implicants
+    private final int cw;            // words of a set of columns
+    private final long[][] primeCols; // columns covered by each prime implicant
+    private final long[][] colPrimes; // prime implicants covering each column
+    private final long[] cost;
+
+    private boolean all;
+    private SolveBudget.Tracker tracker;
+    private boolean complete;
+    private long best;
+    private final ArrayList<long[]> found = new ArrayList<>();
+
+    public BranchAndBoundCover(int primes, int columns) {
+        this.primes = primes;
+        this.columns = columns;
+        pw = Math.max(1, (primes + 63) >>> 6);
+        cw = Math.max(1, (columns + 63) >>> 6);
+        primeCols = new long[primes][cw];
+        colPrimes = new long[columns][pw];
+        cost = new long[primes];
+    }
+
+    /*
+     * Prime implicant covers column
+     */
+    public void set(int prime, int column) {
+        primeCols[prime][column >>> 6] |= 1L << column;
+        colPrimes[column][prime >>> 6] |= 1L << prime;
+    }
+
+    public void setCost(int prime, long cost) {
+        this.cost[prime] = cost;
+    }
+
+    /*
+     * Cost of the solutions returned by the last call to solve
+     */
+    public long getCost() {
+        return best;
+    }
+
+    /*
+     * Returns the cheapest covers as sets of prime implicants, every one of
+     * them if all is true or just the first one found otherwise. An empty
+     * list means the chart cannot be covered.
+     */
+    public ArrayList<long[]> solve(boolean all) {
+        return solve(all, null);
+    }
+
+    /*
+     * Same, stopping when tracker (if not null) runs out of budget
+     */
+    ArrayList<long[]> solve(boolean all, SolveBudget.Tracker tracker) {
+        this.all = all;
+        this.tracker = tracker;
+        complete = true;
+        found.clear();
+        best = greedyCost();
+        search(new long[cw], new long[pw], new long[pw], 0L);
+        return found;
+    }
+
+    /*
+     * Every cover costing cost, the cheapest one (see getCost), one at a
+     * time in the order solve(true) finds them. Each call starts a new
+     * search, the covers are not kept.
+     */
+    public Iterator<long[]> covers(long cost) {
+        return covers(cost, null);
+    }
+
+    /*
+     * Same, ending early when tracker (if not null) runs out of budget
+     */
+    Iterator<long[]> covers(long cost, SolveBudget.Tracker tracker) {
+        return new Covers(cost, tracker);
+    }
+
+    /*
+     * False if the last solve ran out of budget, then its covers are just
+     * the cheapest found before it stopped, maybe none
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /*
+     * Cost of a cover built by always taking the prime implicant with the
+     * lowest cost per new column, an upper bound for the search
+     */
+    private long greedyCost() {
+        long[] covered = new long[cw];
+        long total = 0L;
+        int left = columns;
+        while (left > 0) {
+            int bp = -1;
+            int bn = 0;
+            for (int p = 0; p < primes; p++) {
+                int n = 0;
+                for (int w = 0; w < cw; w++)
+                    n += Long.bitCount(primeCols[p][w] & ~covered[w]);
+                if (n > 0 && (bp < 0 || (double) cost[p] / n < (double) cost[bp] / bn)) {
+                    bp = p;
+                    bn = n;
+                }
+            }
+            if (bp < 0)
+                return Long.MAX_VALUE; // some column has no prime implicant
+            for (int w = 0; w < cw; w++)
+                covered[w] |= primeCols[bp][w];
+            total += cost[bp];
+            left -= bn;
+        }
+        return total;
+    }
+
+    private void search(long[] covered, long[] chosen, long[] excluded, long cr) {
+        if (!complete || (tracker != null && tracker.timeUp())) {
+            complete = false;
+            return;
+        }
+        Node node = node(covered, chosen, excluded, cr, best, !(all || found.isEmpty()));
+        if (node == null)
+            return;
+        if (node.order == null) {
+            record(chosen, cr);
+            return;
+        }
+        while (node.next < node.order.length) {
+            int p = node.order[node.next++];
+            if (cr + cost[p] > best)
+                continue;
+            search(node.cover(p), node.choose(p), node.excluded, cr + cost[p]);
+            node.exclude(p);
+        }
+    }
+
+    /*
+     * A step of the search: the uncovered column with the fewest prime
+     * implicants left and those prime implicants, cheapest per new column
+     * first. Null when the branch is cut: a column can no longer be
+     * covered or the bound passes limit (or reaches it, if cutTies). A
+     * node without order has every column covered.
+     */
+    private Node node(long[] covered, long[] chosen, long[] excluded, long cr, long limit, boolean cutTies) {
+        // available prime implicants of each uncovered column
+        int[] count = new int[columns];
+        int col = -1;
+        int maxCount = 0;
+        for (int c = 0; c < columns; c++) {
+            if ((covered[c >>> 6] & (1L << c)) != 0L) {
+                count[c] = -1;
+                continue;
+            }
+            int n = 0;
+            for (int w = 0; w < pw; w++)
+                n += Long.bitCount(colPrimes[c][w] & ~excluded[w]);
+            if (n == 0)
+                return null; // this column can no longer be covered
+            count[c] = n;
+            maxCount = Math.max(maxCount, n);
+            if (col < 0 || n < count[col])
+                col = c;
+        }
+        if (col < 0)
+            return new Node(covered, chosen, excluded, cr, null);
+
+        long bound = cr + lowerBound(count, maxCount, excluded);
+        if (bound > limit || (bound == limit && cutTies))
+            return null;
+
+        // try the prime implicants of the column, cheapest per new column first
+        int[] order = new int[count[col]];
+        double[] ratio = new double[primes];
+        int ct = 0;
+        for (int p = 0; p < primes; p++) {
+            if ((colPrimes[col][p >>> 6] & (1L << p)) != 0L && (excluded[p >>> 6] & (1L << p)) == 0L) {
+                int n = 0;
+                for (int w = 0; w < cw; w++)
+                    n += Long.bitCount(primeCols[p][w] & ~covered[w]);
+                ratio[p] = (double) cost[p] / n;
+                int i = ct++;
+                while (i > 0 && ratio[order[i - 1]] > ratio[p]) {
+                    order[i] = order[i - 1];
+                    i--;
+                }
+                order[i] = p;
+            }
+        }
+        return new Node(covered, chosen, excluded, cr, order);
+    }
+
+    /*
+     * The search with its recursion turned into a stack of nodes, stopped
+     * at each cover found
+     */
+    private final class Covers implements Iterator<long[]> {
+        private final long limit;
+        private final SolveBudget.Tracker tracker;
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+        private long[] next;
+
+        Covers(long limit, SolveBudget.Tracker tracker) {
+            this.limit = limit;
+            this.tracker = tracker;
+            next = push(new long[cw], new long[pw], new long[pw], 0L);
+        }
+
+        /*
+         * Returns chosen if it covers every column, null otherwise
+         */
+        private long[] push(long[] covered, long[] chosen, long[] excluded, long cr) {
+            Node node = node(covered, chosen, excluded, cr, limit, false);
+            if (node == null)
+                return null;
+            if (node.order == null)
+                return chosen;
+            stack.push(node);
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !stack.isEmpty()) {
+                if (tracker != null && tracker.timeUp()) {
+                    stack.clear();
+                    break;
+                }
+                Node node = stack.peek();
+                if (node.next == node.order.length) {
+                    stack.pop();
+                    continue;
+                }
+                int p = node.order[node.next++];
+                if (node.cr + cost[p] > limit)
+                    continue;
+                next = push(node.cover(p), node.choose(p), node.excluded, node.cr + cost[p]);
+                node.exclude(p);
+            }
+            return next != null;
+        }
+
+        @Override
+        public long[] next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            long[] cover = next;
+            next = null;
+            return cover;
+        }
+    }
+
+    private final class Node {
+        final long[] covered;
+        final long[] chosen;
+        long[] excluded; // grows as the prime implicants of order are tried
+        final long cr;
+        final int[] order;
+        int next;
+
+        Node(long[] covered, long[] chosen, long[] excluded, long cr, int[] order) {
+            this.covered = covered;
+            this.chosen = chosen;
+            this.excluded = excluded;
+            this.cr = cr;
+            this.order = order;
+        }
+
+        long[] cover(int p) {
+            long[] nc = covered.clone();
+            for (int w = 0; w < cw; w++)
+                nc[w] |= primeCols[p][w];
+            return nc;
+        }
+
+        long[] choose(int p) {
+            long[] ch = chosen.clone();
+            ch[p >>> 6] |= 1L << p;
+            return ch;
+        }
+
+        /*
+         * The covers with p were tried, the next ones leave it out
+         */
+        void exclude(int p) {
+            excluded = excluded.clone();
+            excluded[p >>> 6] |= 1L << p;
+        }
+    }
+
+    /*
+     * Columns that share no available prime implicant need one prime
+     * implicant each, at least the cheapest of the column. Columns with
+     * fewer prime implicants are taken first.
+     */
+    private long lowerBound(int[] count, int maxCount, long[] excluded) {
+        int[] e = new int[maxCount + 2];
+        for (int c = 0; c < columns; c++)
+            if (count[c] > 0)
+                e[count[c] + 1]++;
+        for (int i = 1; i < e.length; i++)
+            e[i] += e[i - 1];
+        int[] order = new int[e[maxCount + 1]];
+        for (int c = 0; c < columns; c++)
+            if (count[c] > 0)
+                order[e[count[c]]++] = c;
+
+        long[] used = new long[pw];
+        long lb = 0L;
+        for (int c : order) {
+            boolean independent = true;
+            for (int w = 0; w < pw; w++) {
+                if ((colPrimes[c][w] & ~excluded[w] & used[w]) != 0L) {
+                    independent = false;
+                    break;
+                }
+            }
+            if (!independent)
+                continue;
+            long min = Long.MAX_VALUE;
+            for (int w = 0; w < pw; w++) {
+                long av = colPrimes[c][w] & ~excluded[w];
+                used[w] |= av;
+                for (; av != 0L; av &= av - 1) {
+                    int p = (w << 6) + Long.numberOfTrailingZeros(av);
+                    min = Math.min(min, cost[p]);
+                }
+            }
+            lb += min;
+        }
+        return lb;
+    }
+
+    private void record(long[] chosen, long cr) {
+        if (cr < best) {
+            best = cr;
+            found.clear();
+        }
+        if (cr == best && (all || found.isEmpty()))
+            found.add(chosen);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * class ColorMap colors the cells of a Karnaugh Map after the implicants of
+ * a solution: a cell gets the color of every implicant covering it blended
+ * in the order of the implicants, or stays transparent.
+ *
+ * Each implicant marks its cube in a coverage mask per cell, walking the
+ * subsets of its mask, and the color of a cell is then looked up in a
+ * palette indexed by that mask. The palette is computed once for the first
+ * PALETTE_BITS implicants; a solution with more implicants than that blends
+ * cube by cube instead, which gives the same colors.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public final class ColorMap {
+
+    public static final int TRANSPARENT = 0;
+
+    static final int[] K_BACKGROUND_COLOR = new int[]{
+            argb(100, 56, 83, 164),
+            argb(100, 237, 31, 36),
+            argb(100, 245, 128, 32),
+            argb(100, 12, 129, 128),
+            argb(100, 125, 40, 126),
+            argb(100, 192, 129, 64),
+            argb(100, 236, 0, 140),
+            argb(100, 0, 174, 239),
+            argb(100, 150, 141, 0),
+            argb(100, 193, 31, 68),
+            argb(100, 105, 189, 69),
+            argb(100, 99, 100, 102)
+    };
+
+    private static final int PALETTE_BITS = 12;
+    private static int[] palette;
+
+    private final int[] coverage; // implicants covering each cell, reused from map to map
+
+    public ColorMap(int number_of_in_var) {
+        coverage = new int[1 << number_of_in_var];
+    }
+
+    /*
+     * Packs a color like android.graphics.Color.argb, this module runs
+     * without Android
+     */
+    public static int argb(int alpha, int red, int green, int blue) {
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    public static int color(int k) {
+        return K_BACKGROUND_COLOR[k % K_BACKGROUND_COLOR.length];
+    }
+
+    /*
+     * Color of the cells covered by the implicants in mask, bit k for
+     * implicant k. palette[mask] adds the highest implicant to the blend of
+     * the others, like blending them one by one in order
+     */
+    private static synchronized int[] palette() {
+        if (palette == null) {
+            int[] p = new int[1 << PALETTE_BITS];
+            p[0] = TRANSPARENT;
+            for (int mask = 1; mask < p.length; mask++) {
+                int k = 31 - Integer.numberOfLeadingZeros(mask);
+                int rest = mask & ~(1 << k);
+                // avoid blending with transparent, colors lose alpha
+                p[mask] = rest == 0 ? color(k) : Solver.blend(p[rest], color(k));
+            }
+            palette = p;
+        }
+        return palette;
+    }
+
+    /*
+     * Fills map, one color per minterm, after the implicants im
+     */
+    public void fill(int[] map, ArrayList<Implicant> im) {
+        if (im.size() > PALETTE_BITS) {
+            blend(map, im);
+            return;
+        }
+        Arrays.fill(coverage, 0);
+        for (int k = 0; k < im.size(); k++) {
+            int v = im.get(k).getV() & ~im.get(k).getM();
+            int m = im.get(k).getM();
+            int s = m;
+            while (true) {
+                coverage[v | s] |= 1 << k;
+                if (s == 0)
+                    break;
+                s = (s - 1) & m;
+            }
+        }
+        int[] p = palette();
+        for (int x = 0; x < map.length; x++)
+            map[x] = p[coverage[x]];
+    }
+
+    private static void blend(int[] map, ArrayList<Implicant> im) {
+        Arrays.fill(map, TRANSPARENT);
+        for (int k = 0; k < im.size(); k++) {
+            int v = im.get(k).getV() & ~im.get(k).getM();
+            int m = im.get(k).getM();
+            int s = m;
+            while (true) {
+                int x = v | s;
+                map[x] = map[x] == TRANSPARENT ? color(k) : Solver.blend(map[x], color(k));
+                if (s == 0)
+                    break;
+                s = (s - 1) & m;
+            }
+        }
+    }
+
+    /*
+     * Fills map with one color, the output is always true
+     */
+    public static void fill(int[] map, int color) {
+        Arrays.fill(map, color);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * class ColoredText is text with colored runs, kept as plain text plus
+ * (start, end, color) spans so it can be shown without going through HTML.
+ * toHtml() writes it the way Solver used to, one <font color> per run.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.Arrays;
+
+public final class ColoredText {
+
+    private final StringBuilder text = new StringBuilder();
+    private int[] spans = new int[3 * 8]; // start, end and color of each span
+    private int count;
+
+    public ColoredText append(CharSequence s) {
+        text.append(s);
+        return this;
+    }
+
+    /*
+     * Appends s shown in color (ARGB)
+     */
+    public ColoredText append(CharSequence s, int color) {
+        if (spans.length == count * 3)
+            spans = Arrays.copyOf(spans, spans.length << 1);
+        spans[count * 3] = text.length();
+        text.append(s);
+        spans[count * 3 + 1] = text.length();
+        spans[count * 3 + 2] = color;
+        count++;
+        return this;
+    }
+
+    public void clear() {
+        text.setLength(0);
+        count = 0;
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int getSpanCount() {
+        return count;
+    }
+
+    public int getSpanStart(int i) {
+        return spans[i * 3];
+    }
+
+    public int getSpanEnd(int i) {
+        return spans[i * 3 + 1];
+    }
+
+    public int getSpanColor(int i) {
+        return spans[i * 3 + 2];
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+    public String toHtml() {
+        StringBuilder buf = new StringBuilder(text.length() + count * 32);
+        int p = 0;
+        for (int i = 0; i < count; i++) {
+            buf.append(text, p, getSpanStart(i));
+            buf.append("<font color=\"");
+            buf.append(Solver.formatHTML(getSpanColor(i)));
+            buf.append("\">");
+            buf.append(text, getSpanStart(i), getSpanEnd(i));
+            buf.append("</font>");
+            p = getSpanEnd(i);
+        }
+        buf.append(text, p, text.length());
+        return buf.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package org.xhanka.k_map.lib;
+
+/*
+ * How Solver chooses the non-essential prime implicants once the essential
+ * ones are removed
+ */
+public enum CoverEngine {
+    /*
+     * Multiply out Petrick's product of sums and keep the cheapest terms
+     */
+    PETRICK,
+    /*
+     * Search the prime implicant chart, pruning with a lower bound, without
+     * expanding the product
+     */
+    BRANCH_AND_BOUND,
+    /*
+     * One cover picked greedily (see GreedyCover), in milliseconds on maps
+     * too big for the others but not always the cheapest, for previews
+     */
+    GREEDY
+}
@@ -0,0 +1,253 @@
+/*
+ * class CoverTable is the prime implicant chart: one row per prime
+ * implicant, one column per minterm that must be covered. The incidence is
+ * built once, as bitsets in both directions, by walking the minterms of
+ * each prime implicant.
+ *
+ * Rows and columns are never moved, reductions only clear them from the
+ * active sets, so indices keep referring to the lists the table was built
+ * from. reduce() repeats essential prime implicants, row dominance and
+ * column dominance until nothing changes; what is left is the cyclic core
+ * that Petrick's Method or a search must solve.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public final class CoverTable {
+
+    private final int rowCount;
+    private final int columnCount;
+    private final int rw;              // words of a set of rows
+    private final int cw;              // words of a set of columns
+    private final long[][] rowCols;    // columns of each row
+    private final long[][] colRows;    // rows of each column
+    private final long[] activeRows;
+    private final long[] activeCols;
+    private long[] cost;
+
+    public CoverTable(int number_of_in_var, ArrayList<Implicant> lstPrime, ArrayList<Integer> lstOnes) {
+        rowCount = lstPrime.size();
+        columnCount = lstOnes.size();
+        rw = Math.max(1, (rowCount + 63) >>> 6);
+        cw = Math.max(1, (columnCount + 63) >>> 6);
+        rowCols = new long[rowCount][cw];
+        colRows = new long[columnCount][rw];
+        activeRows = new long[rw];
+        activeCols = new long[cw];
+
+        int[] column = new int[1 << number_of_in_var];
+        Arrays.fill(column, -1);
+        for (int c = 0; c < columnCount; c++) {
+            column[lstOnes.get(c)] = c;
+            activeCols[c >>> 6] |= 1L << c;
+        }
+        for (int r = 0; r < rowCount; r++) {
+            activeRows[r >>> 6] |= 1L << r;
+            int v = lstPrime.get(r).getV();
+            int m = lstPrime.get(r).getM();
+            // every subset of the mask is a minterm of the implicant
+            int sub = 0;
+            do {
+                int c = column[v | sub];
+                if (c >= 0) {
+                    rowCols[r][c >>> 6] |= 1L << c;
+                    colRows[c][r >>> 6] |= 1L << r;
+                }
+                sub = (sub - m) & m;
+            } while (sub != 0);
+        }
+    }
+
+    public void setCost(long[] cost) {
+        this.cost = cost;
+    }
+
+    public boolean covers(int row, int column) {
+        return (rowCols[row][column >>> 6] & (1L << column)) != 0L;
+    }
+
+    public boolean isActiveRow(int row) {
+        return (activeRows[row >>> 6] & (1L << row)) != 0L;
+    }
+
+    public boolean isActiveColumn(int column) {
+        return (activeCols[column >>> 6] & (1L << column)) != 0L;
+    }
+
+    /*
+     * Active rows, in increasing order
+     */
+    public int[] rows() {
+        return members(activeRows);
+    }
+
+    /*
+     * Active columns, in increasing order
+     */
+    public int[] columns() {
+        return members(activeCols);
+    }
+
+    private static int[] members(long[] set) {
+        int ct = 0;
+        for (long w : set)
+            ct += Long.bitCount(w);
+        int[] r = new int[ct];
+        ct = 0;
+        for (int w = 0; w < set.length; w++)
+            for (long x = set[w]; x != 0L; x &= x - 1)
+                r[ct++] = (w << 6) + Long.numberOfTrailingZeros(x);
+        return r;
+    }
+
+    /*
+     * Removes the essential prime implicants (the only ones covering some
+     * column) and the columns they cover. They are returned in the order of
+     * the first column each one is the only cover of.
+     */
+    public int[] extractEssentials() {
+        int[] essentials = new int[0];
+        int ct = 0;
+        for (int c = 0; c < columnCount; c++) {
+            if (!isActiveColumn(c))
+                continue;
+            int r = single(colRows[c], activeRows);
+            if (r >= 0) {
+                if (ct == essentials.length)
+                    essentials = Arrays.copyOf(essentials, Math.max(4, ct << 1));
+                essentials[ct++] = r;
+                select(r);
+            }
+        }
+        return Arrays.copyOf(essentials, ct);
+    }
+
+    /*
+     * Reduces the table to its cyclic core and returns the prime implicants
+     * found to be in every cheapest cover on the way. If all is true, a
+     * prime implicant is dropped only when it can not be part of any
+     * cheapest cover, so every one of them is still in the core; otherwise
+     * at least one cheapest cover is kept.
+     */
+    public int[] reduce(boolean all) {
+        int[] selected = new int[0];
+        int ct = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int c = 0; c < columnCount; c++) {
+                if (!isActiveColumn(c))
+                    continue;
+                int r = single(colRows[c], activeRows);
+                if (r >= 0) {
+                    if (ct == selected.length)
+                        selected = Arrays.copyOf(selected, Math.max(4, ct << 1));
+                    selected[ct++] = r;
+                    select(r);
+                    changed = true;
+                }
+            }
+            changed |= dominatedRows(all);
+            changed |= dominatedColumns();
+        }
+        Arrays.sort(selected, 0, ct);
+        return Arrays.copyOf(selected, ct);
+    }
+
+    /*
+     * Row r is dominated by row q when q covers every active column of r
+     * and costs less, or, if just one cover is wanted, costs the same
+     */
+    private boolean dominatedRows(boolean all) {
+        int[] rows = rows();
+        int[] bc = new int[rowCount];
+        for (int r : rows)
+            bc[r] = count(rowCols[r], activeCols);
+        boolean changed = false;
+        for (int r : rows) {
+            if (bc[r] == 0) {
+                // covers nothing left, cost is always positive
+                activeRows[r >>> 6] &= ~(1L << r);
+                changed = true;
+                continue;
+            }
+            for (int q : rows) {
+                if (q == r || !isActiveRow(q) || bc[q] < bc[r] || cost[q] > cost[r])
+                    continue;
+                if (cost[q] == cost[r] && (all || (bc[q] == bc[r] && q > r)))
+                    continue;
+                if (subset(rowCols[r], rowCols[q], activeCols)) {
+                    activeRows[r >>> 6] &= ~(1L << r);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /*
+     * Column c dominates column d when every row covering c also covers d,
+     * then d is covered anyway and can be removed
+     */
+    private boolean dominatedColumns() {
+        int[] cols = columns();
+        int[] bc = new int[columnCount];
+        for (int c : cols)
+            bc[c] = count(colRows[c], activeRows);
+        boolean changed = false;
+        for (int d : cols) {
+            for (int c : cols) {
+                if (c == d || !isActiveColumn(c) || bc[c] > bc[d] || (bc[c] == bc[d] && c > d))
+                    continue;
+                if (subset(colRows[c], colRows[d], activeRows)) {
+                    activeCols[d >>> 6] &= ~(1L << d);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /*
+     * Removes row r and every column it covers
+     */
+    private void select(int r) {
+        activeRows[r >>> 6] &= ~(1L << r);
+        for (int w = 0; w < cw; w++)
+            activeCols[w] &= ~rowCols[r][w];
+    }
+
+    /*
+     * The only member of set within active, -1 if there is none or more
+     */
+    private static int single(long[] set, long[] active) {
+        int r = -1;
+        for (int w = 0; w < set.length; w++) {
+            long x = set[w] & active[w];
+            if (x == 0L)
+                continue;
+            if (r >= 0 || (x & (x - 1)) != 0L)
+                return -1;
+            r = (w << 6) + Long.numberOfTrailingZeros(x);
+        }
+        return r;
+    }
+
+    private static int count(long[] set, long[] active) {
+        int ct = 0;
+        for (int w = 0; w < set.length; w++)
+            ct += Long.bitCount(set[w] & active[w]);
+        return ct;
+    }
+
+    private static boolean subset(long[] a, long[] b, long[] active) {
+        for (int w = 0; w < a.length; w++)
+            if ((a[w] & active[w] & ~b[w]) != 0L)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * class CubeStore is a growable list of packed cubes (see PrimeGenerator).
+ * Memory is taken in chunks whose size comes from the number of cubes
+ * actually expected, not from the 3^n worst case, either on the Java heap
+ * or in direct ByteBuffers outside of it.
+ */
+package org.xhanka.k_map.lib;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+public final class CubeStore {
+
+    private static final int MIN_CHUNK_SHIFT = 8;
+    private static final int MAX_CHUNK_SHIFT = 20;  // 4 MB per chunk
+
+    private final boolean offHeap;
+    private final int shift;
+    private final int chunkMask;
+
+    private int[][] heapChunks;
+    private IntBuffer[] directChunks;
+    private int chunks;
+    private int size;
+
+    public CubeStore(int expected, boolean offHeap) {
+        this.offHeap = offHeap;
+        int s = 32 - Integer.numberOfLeadingZeros(Math.max(expected, 1) - 1);
+        shift = Math.min(Math.max(s, MIN_CHUNK_SHIFT), MAX_CHUNK_SHIFT);
+        chunkMask = (1 << shift) - 1;
+        if (offHeap)
+            directChunks = new IntBuffer[4];
+        else
+            heapChunks = new int[4][];
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Number of cubes that fit in the chunks already allocated
+     */
+    public long capacity() {
+        return (long) chunks << shift;
+    }
+
+    public int get(int i) {
+        if (offHeap)
+            return directChunks[i >>> shift].get(i & chunkMask);
+        return heapChunks[i >>> shift][i & chunkMask];
+    }
+
+    public void add(int cube) {
+        if (size == capacity())
+            addChunk();
+        if (offHeap)
+            directChunks[size >>> shift].put(size & chunkMask, cube);
+        else
+            heapChunks[size >>> shift][size & chunkMask] = cube;
+        size++;
+    }
+
+    public void addAll(int[] cubes, int from, int to) {
+        for (int i = from; i < to; i++)
+            add(cubes[i]);
+    }
+
+    private void addChunk() {
+        if (offHeap) {
+            if (chunks == directChunks.length)
+                directChunks = Arrays.copyOf(directChunks, chunks << 1);
+            directChunks[chunks] = ByteBuffer.allocateDirect(4 << shift)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        } else {
+            if (chunks == heapChunks.length)
+                heapChunks = Arrays.copyOf(heapChunks, chunks << 1);
+            heapChunks[chunks] = new int[1 << shift];
+        }
+        chunks++;
+    }
+
+    /*
+     * Release every chunk, direct buffers are freed when collected
+     */
+    public void clear() {
+        if (offHeap)
+            Arrays.fill(directChunks, null);
+        else
+            Arrays.fill(heapChunks, null);
+        chunks = 0;
+        size = 0;
+    }
+}
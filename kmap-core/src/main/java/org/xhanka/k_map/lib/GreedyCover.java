@@ -0,0 +1,122 @@
+/*
+ * class GreedyCover covers the columns (minterms) of a prime implicant
+ * chart the greedy way (Chvátal): it keeps taking the prime implicant with
+ * the lowest cost per column it newly covers, then drops the ones the
+ * others made redundant, dearest first. Fast, within a factor ln(columns)
+ * of the cheapest cover, not always the cheapest.
+ */
+package org.xhanka.k_map.lib;
+
+public final class GreedyCover {
+
+    private final int primes;
+    private final int cw;             // words of a set of columns
+    private final long[][] primeCols; // columns covered by each prime implicant
+    private final long[] cost;
+    private final long[] all;         // every column
+
+    public GreedyCover(int primes, int columns) {
+        this.primes = primes;
+        cw = Math.max(1, (columns + 63) >>> 6);
+        primeCols = new long[primes][cw];
+        cost = new long[primes];
+        all = new long[cw];
+        for (int c = 0; c < columns; c++)
+            all[c >>> 6] |= 1L << c;
+    }
+
+    /*
+     * Prime implicant covers column
+     */
+    public void set(int prime, int column) {
+        primeCols[prime][column >>> 6] |= 1L << column;
+    }
+
+    public void setCost(int prime, long cost) {
+        this.cost[prime] = cost;
+    }
+
+    /*
+     * Returns the cover as a set of prime implicants, null if some column
+     * has no prime implicant
+     */
+    public long[] solve() {
+        long[] chosen = new long[Math.max(1, (primes + 63) >>> 6)];
+        long[] left = all.clone();
+        int[] gain = new int[primes]; // new columns of each prime, only ever drops
+        for (int p = 0; p < primes; p++)
+            gain[p] = count(primeCols[p], left);
+        while (!isEmpty(left)) {
+            int bp = -1;
+            for (int p = 0; p < primes; p++) {
+                if (gain[p] == 0)
+                    continue;
+                gain[p] = count(primeCols[p], left);
+                // cost[p] / gain[p] < cost[bp] / gain[bp], without rounding
+                if (gain[p] > 0 && (bp < 0 || (double) cost[p] * gain[bp] < (double) cost[bp] * gain[p]))
+                    bp = p;
+            }
+            if (bp < 0)
+                return null;
+            chosen[bp >>> 6] |= 1L << bp;
+            for (int w = 0; w < cw; w++)
+                left[w] &= ~primeCols[bp][w];
+        }
+        removeRedundant(chosen);
+        return chosen;
+    }
+
+    /*
+     * A prime implicant picked early may have all its columns covered by
+     * the ones picked after it
+     */
+    private void removeRedundant(long[] chosen) {
+        int[] times = new int[cw << 6]; // chosen prime implicants covering each column
+        int[] order = new int[primes];
+        int ct = 0;
+        for (int p = 0; p < primes; p++) {
+            if ((chosen[p >>> 6] & (1L << p)) == 0L)
+                continue;
+            for (int w = 0; w < cw; w++)
+                for (long c = primeCols[p][w]; c != 0L; c &= c - 1)
+                    times[(w << 6) + Long.numberOfTrailingZeros(c)]++;
+            // dearest first
+            int i = ct++;
+            while (i > 0 && cost[order[i - 1]] < cost[p]) {
+                order[i] = order[i - 1];
+                i--;
+            }
+            order[i] = p;
+        }
+        for (int i = 0; i < ct; i++) {
+            int p = order[i];
+            boolean redundant = true;
+            for (int w = 0; w < cw && redundant; w++)
+                for (long c = primeCols[p][w]; c != 0L; c &= c - 1)
+                    if (times[(w << 6) + Long.numberOfTrailingZeros(c)] < 2) {
+                        redundant = false;
+                        break;
+                    }
+            if (!redundant)
+                continue;
+            chosen[p >>> 6] &= ~(1L << p);
+            for (int w = 0; w < cw; w++)
+                for (long c = primeCols[p][w]; c != 0L; c &= c - 1)
+                    times[(w << 6) + Long.numberOfTrailingZeros(c)]--;
+        }
+    }
+
+    private int count(long[] cols, long[] left) {
+        int n = 0;
+        for (int w = 0; w < cw; w++)
+            n += Long.bitCount(cols[w] & left[w]);
+        return n;
+    }
+
+    private static boolean isEmpty(long[] set) {
+        for (long w : set)
+            if (w != 0L)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * class GroupOutline is the outline of an implicant on a Karnaugh Map: the
+ * rectangles of cells, in row and column units of a KarnaughLayout, that
+ * together cover exactly the cells of the implicant.
+ *
+ * A group wrapping around an edge of the map, or going on in the next
+ * sub-map of a 5 or 6 variable map, is cut there; each piece tells on which
+ * sides the group goes on (OPEN_LEFT ... OPEN_BOTTOM) so it can be drawn
+ * open on those sides.
+ *
+ * Rows of the implicant are cut into runs of consecutive cells and
+ * consecutive rows with the same runs are merged. Every layout here keeps
+ * the row and the column of a cell on separate variables, the cells of an
+ * implicant are then a product of rows and columns and the rectangles are
+ * as few as possible.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.Arrays;
+
+public final class GroupOutline {
+
+    public static final int OPEN_LEFT = 1;
+    public static final int OPEN_RIGHT = 2;
+    public static final int OPEN_TOP = 4;
+    public static final int OPEN_BOTTOM = 8;
+
+    private int[] rects = new int[5 * 4]; // row, col, rows, cols and open sides of each rectangle
+    private int count;
+
+    /*
+     * Outline of the implicant with value v and mask m
+     */
+    public static GroupOutline of(int v, int m, KarnaughLayout layout) {
+        return of(v, m, layout, 0, 0);
+    }
+
+    public static GroupOutline of(Implicant im, KarnaughLayout layout) {
+        return of(im.getV(), im.getM(), layout, 0, 0);
+    }
+
+    /*
+     * Same, with the map made of sub-maps of subRows by subCols cells (0 for
+     * no sub-maps), rectangles never cross from one sub-map to another
+     */
+    public static GroupOutline of(Implicant im, KarnaughLayout layout, int subRows, int subCols) {
+        return of(im.getV(), im.getM(), layout, subRows, subCols);
+    }
+
+    public static GroupOutline of(int v, int m, KarnaughLayout layout, int subRows, int subCols) {
+        int rows = layout.getRows();
+        int cols = layout.getCols();
+        if (subRows <= 0)
+            subRows = rows;
+        if (subCols <= 0)
+            subCols = cols;
+
+        // cells of the implicant, one bit per column for each row
+        int words = (cols + 63) >>> 6;
+        long[] covered = new long[rows * words];
+        v &= ~m;
+        int s = m;
+        while (true) {
+            int cell = layout.cell(v | s);
+            int r = cell / cols;
+            int c = cell % cols;
+            covered[r * words + (c >>> 6)] |= 1L << c;
+            if (s == 0)
+                break;
+            s = (s - 1) & m;
+        }
+
+        GroupOutline outline = new GroupOutline();
+        int r = 0;
+        while (r < rows) {
+            if (isEmpty(covered, r, words)) {
+                r++;
+                continue;
+            }
+            // rows with the same cells, up to the end of the sub-map
+            int end = r + 1;
+            while (end < rows && end % subRows != 0 && sameRow(covered, r, end, words))
+                end++;
+            int c = 0;
+            while (c < cols) {
+                if (!isSet(covered, r, c, words)) {
+                    c++;
+                    continue;
+                }
+                int right = c + 1;
+                while (right < cols && right % subCols != 0 && isSet(covered, r, right, words))
+                    right++;
+                int open = 0;
+                if (c % subCols == 0 && goesOnInRow(layout, m, r, c, c, right))
+                    open |= OPEN_LEFT;
+                if (right % subCols == 0 && goesOnInRow(layout, m, r, right - 1, c, right))
+                    open |= OPEN_RIGHT;
+                if (r % subRows == 0 && goesOnInColumn(layout, m, r, c, r, end))
+                    open |= OPEN_TOP;
+                if (end % subRows == 0 && goesOnInColumn(layout, m, end - 1, c, r, end))
+                    open |= OPEN_BOTTOM;
+                outline.add(r, c, end - r, right - c, open);
+                c = right;
+            }
+            r = end;
+        }
+        return outline;
+    }
+
+    private static boolean isSet(long[] covered, int r, int c, int words) {
+        return (covered[r * words + (c >>> 6)] & (1L << c)) != 0L;
+    }
+
+    private static boolean isEmpty(long[] covered, int r, int words) {
+        for (int w = 0; w < words; w++)
+            if (covered[r * words + w] != 0L)
+                return false;
+        return true;
+    }
+
+    private static boolean sameRow(long[] covered, int r1, int r2, int words) {
+        for (int w = 0; w < words; w++)
+            if (covered[r1 * words + w] != covered[r2 * words + w])
+                return false;
+        return true;
+    }
+
+    /*
+     * Whether a free variable of the group takes cell (row, col) to another
+     * cell of the row outside columns c to right - 1: the rectangle is on
+     * an edge there and the group goes on past it
+     */
+    private static boolean goesOnInRow(KarnaughLayout layout, int m, int row, int col, int c, int right) {
+        int cols = layout.getCols();
+        int x = layout.minterm(row, col);
+        for (int b = m; b != 0; b &= b - 1) {
+            int cell = layout.cell(x ^ (b & -b));
+            int nc = cell % cols;
+            if (cell / cols == row && (nc < c || nc >= right))
+                return true;
+        }
+        return false;
+    }
+
+    /*
+     * Same in the column of the cell, outside rows r to end - 1
+     */
+    private static boolean goesOnInColumn(KarnaughLayout layout, int m, int row, int col, int r, int end) {
+        int cols = layout.getCols();
+        int x = layout.minterm(row, col);
+        for (int b = m; b != 0; b &= b - 1) {
+            int cell = layout.cell(x ^ (b & -b));
+            int nr = cell / cols;
+            if (cell % cols == col && (nr < r || nr >= end))
+                return true;
+        }
+        return false;
+    }
+
+    private void add(int row, int col, int rows, int cols, int open) {
+        if (rects.length == count * 5)
+            rects = Arrays.copyOf(rects, rects.length << 1);
+        int i = count * 5;
+        rects[i] = row;
+        rects[i + 1] = col;
+        rects[i + 2] = rows;
+        rects[i + 3] = cols;
+        rects[i + 4] = open;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getRow(int i) {
+        return rects[i * 5];
+    }
+
+    public int getCol(int i) {
+        return rects[i * 5 + 1];
+    }
+
+    public int getRows(int i) {
+        return rects[i * 5 + 2];
+    }
+
+    public int getCols(int i) {
+        return rects[i * 5 + 3];
+    }
+
+    /*
+     * Sides of rectangle i the group goes on past, OPEN_LEFT ... OPEN_BOTTOM
+     */
+    public int getOpenSides(int i) {
+        return rects[i * 5 + 4];
+    }
+}
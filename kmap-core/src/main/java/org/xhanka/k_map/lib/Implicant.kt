@@ -75,16 +75,17 @@ class Implicant : Comparable<Any> {
     /*
      * Express the implicant as a boolean expression (product)
      */
-    fun toExpressionProd(): StringBuilder {
+    fun toExpressionProd(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append("\u00b7")
-                    buf.append(invar_ec[number_of_in_var - i - 1])
+                    buf.append(names.complemented(number_of_in_var - i - 1))
                 } else {
                     if (buf.isNotEmpty()) buf.append("\u00b7")
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                 }
             }
         }
@@ -94,83 +95,88 @@ class Implicant : Comparable<Any> {
     /*
      * Express the implicant as a boolean expression (sum)
      */
-    fun toExpressionSum(): StringBuilder {
+    fun toExpressionSum(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append('+')
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                 } else {
                     if (buf.isNotEmpty()) buf.append('+')
-                    buf.append(invar_ec[number_of_in_var - i - 1])
+                    buf.append(names.complemented(number_of_in_var - i - 1))
                 }
             }
         }
         return buf
     }
 
-    fun toExpressionLatexProd(): StringBuilder {
+    fun toExpressionLatexProd(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append("\\,")
-                    buf.append(invar_lc[number_of_in_var - i - 1])
+                    buf.append(names.latexComplemented(number_of_in_var - i - 1))
                 } else {
                     if (buf.isNotEmpty()) buf.append("\\,")
-                    buf.append(invar_l[number_of_in_var - i - 1])
+                    buf.append(names.latexName(number_of_in_var - i - 1))
                 }
             }
         }
         return buf
     }
 
-    fun toExpressionLatexSum(): StringBuilder {
+    fun toExpressionLatexSum(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append('+')
-                    buf.append(invar_l[number_of_in_var - i - 1])
+                    buf.append(names.latexName(number_of_in_var - i - 1))
                 } else {
                     if (buf.isNotEmpty()) buf.append('+')
-                    buf.append(invar_lc[number_of_in_var - i - 1])
+                    buf.append(names.latexComplemented(number_of_in_var - i - 1))
                 }
             }
         }
         return buf
     }
 
-    fun toExpressionSTprod(): StringBuilder {
+    fun toExpressionSTprod(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append(" AND ")
                     buf.append("NOT(")
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                     buf.append(')')
                 } else {
                     if (buf.isNotEmpty()) buf.append(" AND ")
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                 }
             }
         }
         return buf
     }
 
-    fun toExpressionSTsum(): StringBuilder {
+    fun toExpressionSTsum(names: VariableNames): StringBuilder {
+        val number_of_in_var = names.number_of_in_var
         val buf = StringBuilder()
         for (i in number_of_in_var - 1 downTo 0) { // start at the most significative bit
             if (m and (1 shl i) == 0) {
                 if (v and (1 shl i) == 0) {
                     if (buf.isNotEmpty()) buf.append(" OR ")
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                 } else {
                     if (buf.isNotEmpty()) buf.append(" OR ")
                     buf.append("NOT(")
-                    buf.append(invar_e[number_of_in_var - i - 1])
+                    buf.append(names.name(number_of_in_var - i - 1))
                     buf.append(')')
                 }
             }
@@ -187,7 +193,7 @@ class Implicant : Comparable<Any> {
             var msp = 0
             var j = 0
             while (msp < nb) {
-                if (m and 1 shl j != 0) {
+                if (m and (1 shl j) != 0) {
                     ms[msp] = 1 shl j
                     msp++
                 }
@@ -217,7 +223,7 @@ class Implicant : Comparable<Any> {
             var j = 0
 
             while (msp < nb) {
-                if (m and 1 shl j != 0) {
+                if (m and (1 shl j) != 0) {
                     ms[msp] = 1 shl j
                     msp++
                 }
@@ -247,70 +253,6 @@ class Implicant : Comparable<Any> {
          */
         const val MAX_IN_VAR = 16
         const val MAX_OUT_VAR = 16
-        private var number_of_in_var = 0
-        private val invar_e = arrayOfNulls<StringBuilder>(MAX_IN_VAR)
-        private val invar_ec = arrayOfNulls<StringBuilder>(MAX_IN_VAR)
-        private val invar_l = arrayOfNulls<StringBuilder>(MAX_IN_VAR)
-        private val invar_lc = arrayOfNulls<StringBuilder>(MAX_IN_VAR)
-
-        /*
-     * Initializes variable name lists (complemented and non-complemented), so
-     * they are ready to be used in the subexpression of the prime implicant.
-     */
-        @JvmStatic
-        fun startExpression(number_of_in_vars: Int, in_var_names: Array<String>) {
-            number_of_in_var = number_of_in_vars
-            var tmp: String
-
-            for (i in 0 until number_of_in_var) {
-                tmp = in_var_names[i].trim { it <= ' ' }
-                invar_e[i] = StringBuilder(tmp)
-
-                val vars = tmp.split("_".toRegex()).toTypedArray()
-                val tmpc = StringBuilder()
-
-                for (element in vars[0]) {
-                    tmpc.append(element)
-                    tmpc.append("'")
-                }
-                for (j in 1 until vars.size) {
-                    tmpc.append("_")
-                    tmpc.append(vars[j])
-                }
-                invar_ec[i] = tmpc
-            }
-        }
-
-        fun startLatex(number_of_in_vars: Int, in_var_names: Array<String>) {
-            number_of_in_var = number_of_in_vars
-            for (i in 0 until number_of_in_var) {
-                val vars = in_var_names[i].trim { it <= ' ' }.split("_".toRegex()).toTypedArray()
-                val tmpc = StringBuilder()
-                if (vars[0].length > 1) {
-                    tmpc.append("\\overline{")
-                    tmpc.append(vars[0])
-                    tmpc.append('}')
-                } else {
-                    tmpc.append("\\bar{")
-                    tmpc.append(vars[0])
-                    tmpc.append('}')
-                }
-                val tmpf = StringBuilder()
-                for (j in 1 until vars.size) {
-                    tmpf.append("_{")
-                    tmpf.append(vars[j])
-                    tmpf.append("}")
-                }
-                tmpc.append(tmpf)
-                tmpf.insert(0, vars[0])
-                invar_l[i] = tmpf
-                invar_lc[i] = tmpc
-            }
-        }
-
-        fun latexInName(i: Int): StringBuilder? {
-            return invar_l[i]
-        }
 
         fun latexNorm(`var`: String): StringBuilder {
             val vars = `var`.trim { it <= ' ' }.split("_".toRegex()).toTypedArray()
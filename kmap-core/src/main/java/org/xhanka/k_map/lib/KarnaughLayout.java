@@ -0,0 +1,119 @@
+/*
+ * class KarnaughLayout maps the cells of a Karnaugh Map to minterms and
+ * back. Cells are numbered row by row, cell = row * cols + col.
+ *
+ * of() gives the layout of Solver for a number of input variables and an
+ * order of the variables (cells numbered like the latex package karnaugh,
+ * see Solver.mat2bin), built once and shared. A view drawing its own grid
+ * builds its layout from the minterm of each of its cells.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public final class KarnaughLayout {
+
+    private static final HashMap<Long, KarnaughLayout> LAYOUTS = new HashMap<>();
+
+    private final int number_of_in_var;
+    private final int cols;
+    private final int[] cellToMinterm;
+    private final int[] mintermToCell;
+
+    /*
+     * Layout of cols columns with minterm cellToMinterm[cell] in each cell,
+     * every minterm exactly once
+     */
+    public KarnaughLayout(int number_of_in_var, int cols, int[] cellToMinterm) {
+        int mx = 1 << number_of_in_var;
+        if (cellToMinterm.length != mx || mx % cols != 0)
+            throw new IllegalArgumentException("a Karnaugh Map of " + number_of_in_var + " variables has " + mx + " cells");
+        this.number_of_in_var = number_of_in_var;
+        this.cols = cols;
+        this.cellToMinterm = cellToMinterm;
+        mintermToCell = new int[mx];
+        Arrays.fill(mintermToCell, -1);
+        for (int c = 0; c < mx; c++) {
+            int x = cellToMinterm[c];
+            if (mintermToCell[x] != -1)
+                throw new IllegalArgumentException("minterm " + x + " is in two cells");
+            mintermToCell[x] = c;
+        }
+    }
+
+    /*
+     * Layout of Solver, KarnaughInOrder[i] is the place of variable i
+     */
+    public static KarnaughLayout of(int number_of_in_var, int[] KarnaughInOrder) {
+        // 4 bits per variable; the order of n variables holds n - 1 and
+        // nothing above, so orders of different sizes never collide
+        long key = 0L;
+        for (int i = 0; i < number_of_in_var; i++)
+            key |= ((long) KarnaughInOrder[i]) << (i << 2);
+        synchronized (LAYOUTS) {
+            KarnaughLayout layout = LAYOUTS.get(key);
+            if (layout == null) {
+                layout = build(number_of_in_var, KarnaughInOrder);
+                LAYOUTS.put(key, layout);
+            }
+            return layout;
+        }
+    }
+
+    private static KarnaughLayout build(int number_of_in_var, int[] KarnaughInOrder) {
+        int[] newKarnaughOrder = new int[number_of_in_var];
+        for (int i = 0; i < number_of_in_var; i++)
+            newKarnaughOrder[i] = number_of_in_var - 1 - KarnaughInOrder[number_of_in_var - 1 - i];
+
+        int nrows = 1 << (number_of_in_var >> 1);
+        int ncols = 1 << (number_of_in_var - (number_of_in_var >> 1));
+        int[] cells = new int[nrows * ncols];
+        for (int i = 0; i < nrows; i++) {
+            for (int j = 0; j < ncols; j++) {
+                int ed = Solver.mat2bin(i, j);
+                int r = 0;
+                for (int b = 0; b < number_of_in_var; b++)
+                    r |= ((ed >>> b) & 1) << newKarnaughOrder[b];
+                cells[i * ncols + j] = r;
+            }
+        }
+        return new KarnaughLayout(number_of_in_var, ncols, cells);
+    }
+
+    public int getNumberOfInVar() {
+        return number_of_in_var;
+    }
+
+    public int getRows() {
+        return cellToMinterm.length / cols;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCellCount() {
+        return cellToMinterm.length;
+    }
+
+    public int minterm(int cell) {
+        return cellToMinterm[cell];
+    }
+
+    public int minterm(int row, int col) {
+        return cellToMinterm[row * cols + col];
+    }
+
+    public int cell(int minterm) {
+        return mintermToCell[minterm];
+    }
+
+    /*
+     * Copies map, one value per minterm, to dst in cell order
+     */
+    public void toCells(int[] map, int[] dst) {
+        for (int c = 0; c < cellToMinterm.length; c++)
+            dst[c] = map[cellToMinterm[c]];
+    }
+}
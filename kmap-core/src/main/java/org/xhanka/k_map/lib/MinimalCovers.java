@@ -0,0 +1,98 @@
+/*
+ * class MinimalCovers hands out the cheapest covers of one output one at a
+ * time, each as the list of prime implicants Solutions.primeI holds for it
+ * (the essential ones apart), in the same order; limit(k) stops after k.
+ * From Kotlin, asSequence() gives them as a Sequence.
+ *
+ * Only the branch-and-bound engine is lazy: it searches for a cover when it
+ * is asked for, so the first ones come at once even for functions with
+ * hundreds of them. Petrick's Method has multiplied out every cover during
+ * Solve(), here they are only turned into lists. If the solver was not
+ * asked for every solution (or ran out of budget) there is just the one it
+ * found.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class MinimalCovers implements Iterable<ArrayList<Implicant>> {
+
+    private final ArrayList<Implicant> primes; // prime implicants left by the essentials
+    private final long[] fixed;                // of primes, part of every cover
+    private final int[] position;              // in primes of each prime implicant of the core
+    private final Iterable<long[]> source;     // covers of the core
+    private final int limit;
+
+    MinimalCovers(ArrayList<Implicant> primes, long[] fixed, int[] position, Iterable<long[]> source) {
+        this(primes, fixed, position, source, Integer.MAX_VALUE);
+    }
+
+    private MinimalCovers(ArrayList<Implicant> primes, long[] fixed, int[] position, Iterable<long[]> source, int limit) {
+        this.primes = primes;
+        this.fixed = fixed;
+        this.position = position;
+        this.source = source;
+        this.limit = limit;
+    }
+
+    /*
+     * The first k covers at most
+     */
+    public MinimalCovers limit(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("negative limit " + k);
+        return new MinimalCovers(primes, fixed, position, source, Math.min(k, limit));
+    }
+
+    /*
+     * Each call starts over from the first cover
+     */
+    @Override
+    public Iterator<ArrayList<Implicant>> iterator() {
+        final Iterator<long[]> covers = source.iterator();
+        return new Iterator<ArrayList<Implicant>>() {
+            private int taken;
+
+            @Override
+            public boolean hasNext() {
+                return taken < limit && covers.hasNext();
+            }
+
+            @Override
+            public ArrayList<Implicant> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                taken++;
+                return toList(toPrimes(covers.next()));
+            }
+        };
+    }
+
+    /*
+     * A cover of the core as a set of primes, with the fixed ones
+     */
+    long[] toPrimes(long[] cover) {
+        long[] M = fixed.clone();
+        for (int i = 0; i < position.length; i++) {
+            if ((cover[i >>> 6] & (1L << i)) != 0L) {
+                M[position[i] >>> 6] |= 1L << position[i];
+            }
+        }
+        return M;
+    }
+
+    ArrayList<Implicant> toList(long[] M) {
+        int ct = 0;
+        for (long w : M)
+            ct += Long.bitCount(w);
+        ArrayList<Implicant> lst = new ArrayList<>(ct);
+        for (int i = 0; i < primes.size(); i++) {
+            if ((M[i >>> 6] & (1L << i)) != 0L) {
+                lst.add(primes.get(i));
+            }
+        }
+        return lst;
+    }
+}
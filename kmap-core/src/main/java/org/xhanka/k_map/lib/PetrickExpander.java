@@ -0,0 +1,232 @@
+/*
+ * class PetrickExpander multiplies out the product of sums of Petrick's
+ * Method. Each term of the sum of products is a set of prime implicants
+ * kept as a multi-word bitset, so there is no limit on the number of prime
+ * implicants. Repeated terms are found through a hash table and absorbed
+ * terms (supersets of another term) by checking each term only against the
+ * terms with fewer prime implicants.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.Arrays;
+
+public final class PetrickExpander {
+
+    private final int words;
+
+    private long[] terms;     // current sum of products, words longs per term
+    private int size;
+
+    private long[] next;      // terms being built by multiply
+    private int[] nextHash;
+    private int nextSize;
+    private int peak;         // most terms built by one multiply, before absorption
+
+    private int[] table;      // open addressing, term index + 1, 0 is empty
+    private int tableMask;
+
+    public PetrickExpander(int number_of_primes) {
+        words = Math.max(1, (number_of_primes + 63) >>> 6);
+        terms = new long[words * 16];
+        next = new long[words * 16];
+        nextHash = new int[16];
+        table = new int[32];
+        tableMask = table.length - 1;
+        size = 1; // the empty term, neutral element of the product
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int term, int prime) {
+        return (terms[term * words + (prime >>> 6)] & (1L << prime)) != 0L;
+    }
+
+    /*
+     * Copy of a term as a set of prime implicants
+     */
+    public long[] term(int term) {
+        return Arrays.copyOfRange(terms, term * words, (term + 1) * words);
+    }
+
+    public int bitCount(int term) {
+        int ct = 0;
+        for (int w = 0, o = term * words; w < words; w++, o++)
+            ct += Long.bitCount(terms[o]);
+        return ct;
+    }
+
+    /*
+     * Multiplies the current sum of products by the sum of the count first
+     * prime implicants of clause ("and" expanded over "or")
+     */
+    public void multiply(int[] clause, int count) {
+        multiply(clause, count, null);
+    }
+
+    /*
+     * Same, but gives up when tracker (if not null) runs out of budget, in
+     * that case false is returned and the product is left as it was
+     */
+    boolean multiply(int[] clause, int count, SolveBudget.Tracker tracker) {
+        nextSize = 0;
+        Arrays.fill(table, 0);
+        for (int t = 0; t < size; t++) {
+            if (tracker != null && (tracker.terms(nextSize + count) || tracker.timeUp()))
+                return false;
+            int o = t * words;
+            boolean absorbs = false;
+            for (int i = 0; i < count; i++) {
+                if ((terms[o + (clause[i] >>> 6)] & (1L << clause[i])) != 0L) {
+                    absorbs = true;
+                    break;
+                }
+            }
+            if (absorbs) {
+                // t times any prime of the clause is absorbed by t itself
+                add(terms, o, -1);
+            } else {
+                for (int i = 0; i < count; i++)
+                    add(terms, o, clause[i]);
+            }
+        }
+        if (!absorb(tracker))
+            return false;
+
+        long[] tmp = terms;
+        terms = next;
+        next = tmp;
+        size = nextSize;
+        return true;
+    }
+
+    public int getPeak() {
+        return peak;
+    }
+
+    /*
+     * Adds src (plus the prime implicant, if not negative) to the next terms
+     * unless it is already there
+     */
+    private void add(long[] src, int offset, int prime) {
+        if (next.length < (nextSize + 1) * words) {
+            next = Arrays.copyOf(next, next.length << 1);
+        }
+        int o = nextSize * words;
+        System.arraycopy(src, offset, next, o, words);
+        if (prime >= 0)
+            next[o + (prime >>> 6)] |= 1L << prime;
+
+        int h = 1;
+        for (int w = 0; w < words; w++) {
+            long x = next[o + w];
+            h = 31 * h + (int) (x ^ (x >>> 32));
+        }
+        h ^= h >>> 16;
+
+        for (int i = h & tableMask; ; i = (i + 1) & tableMask) {
+            int e = table[i] - 1;
+            if (e < 0) {
+                table[i] = nextSize + 1;
+                break;
+            }
+            if (nextHash[e] == h && equal(next, e * words, o))
+                return;
+        }
+        if (nextHash.length == nextSize)
+            nextHash = Arrays.copyOf(nextHash, nextSize << 1);
+        nextHash[nextSize++] = h;
+        if (nextSize > peak)
+            peak = nextSize;
+        if (nextSize << 1 > table.length)
+            rehash();
+    }
+
+    private boolean equal(long[] a, int o1, int o2) {
+        for (int w = 0; w < words; w++)
+            if (a[o1 + w] != a[o2 + w])
+                return false;
+        return true;
+    }
+
+    private void rehash() {
+        table = new int[table.length << 1];
+        tableMask = table.length - 1;
+        for (int t = 0; t < nextSize; t++) {
+            int i = nextHash[t] & tableMask;
+            while (table[i] != 0)
+                i = (i + 1) & tableMask;
+            table[i] = t + 1;
+        }
+    }
+
+    /*
+     * Removes from the next terms every term that has another term as a
+     * subset (X + X.Y = X). Terms are visited by number of prime implicants,
+     * so a term is only checked against shorter ones. The remaining terms
+     * keep their order. Quadratic in the terms, so the tracker (if not
+     * null) is checked for each term: false when out of budget.
+     */
+    private boolean absorb(SolveBudget.Tracker tracker) {
+        if (nextSize < 2)
+            return true;
+        int[] bc = new int[nextSize];
+        int maxbc = 0;
+        for (int t = 0; t < nextSize; t++) {
+            int ct = 0;
+            for (int w = 0, o = t * words; w < words; w++, o++)
+                ct += Long.bitCount(next[o]);
+            bc[t] = ct;
+            maxbc = Math.max(maxbc, ct);
+        }
+        int[] e = new int[maxbc + 2];
+        for (int t = 0; t < nextSize; t++)
+            e[bc[t] + 1]++;
+        for (int i = 1; i < e.length; i++)
+            e[i] += e[i - 1];
+        int[] order = new int[nextSize];
+        int[] pos = Arrays.copyOf(e, e.length);
+        for (int t = 0; t < nextSize; t++)
+            order[pos[bc[t]]++] = t;
+
+        boolean[] keep = new boolean[nextSize];
+        int[] kept = new int[nextSize];
+        int ctk = 0;
+        for (int g = 0; g <= maxbc; g++) {
+            int shorter = ctk; // kept terms with fewer prime implicants
+            for (int i = e[g]; i < e[g + 1]; i++) {
+                if (tracker != null && tracker.timeUp())
+                    return false;
+                int t = order[i];
+                int o = t * words;
+                boolean absorbed = false;
+                for (int k = 0; k < shorter && !absorbed; k++) {
+                    int ok = kept[k] * words;
+                    absorbed = true;
+                    for (int w = 0; w < words; w++) {
+                        if ((next[ok + w] & ~next[o + w]) != 0L) {
+                            absorbed = false;
+                            break;
+                        }
+                    }
+                }
+                if (!absorbed) {
+                    keep[t] = true;
+                    kept[ctk++] = t;
+                }
+            }
+        }
+
+        int ct = 0;
+        for (int t = 0; t < nextSize; t++) {
+            if (keep[t]) {
+                if (ct != t)
+                    System.arraycopy(next, t * words, next, ct * words, words);
+                ct++;
+            }
+        }
+        nextSize = ct;
+        return true;
+    }
+}
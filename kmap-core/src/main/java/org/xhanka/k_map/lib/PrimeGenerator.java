@@ -0,0 +1,338 @@
+/*
+ * class PrimeGenerator runs the merge phase of the Quine–McCluskey
+ * algorithm over packed cubes instead of Implicant objects.
+ *
+ * A cube is stored in one int, value in the upper 16 bits and mask in the
+ * lower 16 bits (see pack). Each merge level holds the cubes whose mask has
+ * the same number of ones, grouped by the number of ones of the value, and
+ * a merge partner is found by a hash lookup instead of comparing the whole
+ * next group. Cubes live in a CubeStore, so memory grows with the number
+ * of cubes really generated and may be kept off the heap. The cubes are
+ * kept in the same order the array version of Solver.Solve() leaves them
+ * in, so both produce the same prime implicants in the same order.
+ *
+ * Under a SolveBudget the merge may stop early. Every cube found is kept,
+ * so the cubes not merged still cover every minterm, but some of them are
+ * not prime (see isComplete).
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public final class PrimeGenerator {
+
+    private static final int VALUE_SHIFT = Implicant.MAX_IN_VAR;
+    private static final int MASK_BITS = (1 << Implicant.MAX_IN_VAR) - 1;
+
+    private final int number_of_in_var;
+    private final int full;
+    private final boolean offHeap;
+
+    private CubeStore cubes;  // every cube generated, level by level
+    private long[] covered;   // bit i set when cube i was merged into a bigger one
+    private long comparisons; // partners looked up
+    private boolean complete; // every level was merged
+    private int size;
+
+    private int[] levelStart; // first cube of each level, levelStart[levels] == size
+    private int levels;
+
+    public PrimeGenerator(int number_of_in_var) {
+        this(number_of_in_var, false);
+    }
+
+    public PrimeGenerator(int number_of_in_var, boolean offHeap) {
+        this.number_of_in_var = number_of_in_var;
+        this.full = (1 << number_of_in_var) - 1;
+        this.offHeap = offHeap;
+    }
+
+    public static int pack(int v, int m) {
+        return (v << VALUE_SHIFT) | m;
+    }
+
+    public static int value(int cube) {
+        return cube >>> VALUE_SHIFT;
+    }
+
+    public static int mask(int cube) {
+        return cube & MASK_BITS;
+    }
+
+    /*
+     * Generates every implicant of the function whose ones and don't cares
+     * are the first count entries of minterms.
+     */
+    public void generate(int[] minterms, int count) {
+        generate(minterms, count, null);
+    }
+
+    /*
+     * Same, stopping when tracker (if not null) runs out of budget
+     */
+    void generate(int[] minterms, int count, SolveBudget.Tracker tracker) {
+        cubes = new CubeStore(count << 1, offHeap);
+        covered = new long[(count >>> 5) + 1];
+        levelStart = new int[number_of_in_var + 2];
+        size = 0;
+        levels = 0;
+        comparisons = 0;
+        complete = true;
+
+        int[] level = new int[count];
+        for (int i = 0; i < count; i++)
+            level[i] = pack(minterms[i], 0);
+        appendLevel(level, count);
+
+        CubeIndex index = new CubeIndex(count);
+        CubeIndex merged = new CubeIndex(count);
+        while (true) {
+            int from = levelStart[levels - 1];
+            int to = size;
+            index.clear();
+            for (int i = from; i < to; i++)
+                index.put(cubes.get(i), i);
+
+            merged.clear();
+            int ct = 0;
+            for (int i = from; i < to; i++) {
+                if (tracker != null && tracker.cubes(size + ct)) {
+                    complete = false;
+                    break;
+                }
+                int c = cubes.get(i);
+                int v = value(c);
+                int m = mask(c);
+                // a partner has the same mask and exactly one more one
+                for (int free = ~(v | m) & full; free != 0; free &= free - 1) {
+                    int d = free & -free;
+                    int k = index.get(pack(v | d, m));
+                    comparisons++;
+                    if (k >= 0) {
+                        setCovered(i);
+                        setCovered(k);
+                        int np = pack(v, m | d);
+                        if (merged.put(np, ct)) {
+                            if (ct == level.length)
+                                level = Arrays.copyOf(level, ct << 1);
+                            level[ct++] = np;
+                        }
+                    }
+                }
+            }
+            if (ct == 0)
+                break;
+            // a cube is marked covered only once the merged cube is in level
+            appendLevel(level, ct);
+            if (!complete)
+                break;
+            if (level.length > ct << 2)
+                level = new int[ct << 1]; // levels get smaller past the middle one
+        }
+    }
+
+    /*
+     * Append a new level sorted by the number of ones of the value, then
+     * value, then mask, that is the order used by Solver.Solve()
+     */
+    private void appendLevel(int[] level, int ct) {
+        int[] e = new int[number_of_in_var + 2];
+        for (int i = 0; i < ct; i++)
+            e[Integer.bitCount(value(level[i])) + 1]++;
+        for (int i = 1; i < e.length; i++)
+            e[i] += e[i - 1];
+
+        int[] sorted = new int[ct];
+        int[] pos = Arrays.copyOf(e, e.length);
+        for (int i = 0; i < ct; i++)
+            sorted[pos[Integer.bitCount(value(level[i]))]++] = level[i];
+        for (int i = 0; i <= number_of_in_var; i++)
+            sortUnsigned(sorted, e[i], e[i + 1]);
+        cubes.addAll(sorted, 0, ct);
+        if ((size + ct) >>> 6 >= covered.length)
+            covered = Arrays.copyOf(covered, Math.max(((size + ct) >>> 6) + 1, covered.length << 1));
+
+        levelStart[levels++] = size;
+        size += ct;
+        levelStart[levels] = size;
+    }
+
+    /*
+     * Sixteen variables use the sign bit of the packed cube
+     */
+    private static void sortUnsigned(int[] a, int from, int to) {
+        for (int i = from; i < to; i++)
+            a[i] ^= Integer.MIN_VALUE;
+        Arrays.sort(a, from, to);
+        for (int i = from; i < to; i++)
+            a[i] ^= Integer.MIN_VALUE;
+    }
+
+    private void setCovered(int i) {
+        covered[i >>> 6] |= 1L << i;
+    }
+
+    public boolean isCovered(int i) {
+        return (covered[i >>> 6] & (1L << i)) != 0L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+     * False if the last generate() ran out of budget, then the uncovered
+     * cubes are implicants but not all of them prime
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int cube(int i) {
+        return cubes.get(i);
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public int getLevelStart(int level) {
+        return levelStart[level];
+    }
+
+    /*
+     * Cubes of each level, minterms first
+     */
+    public int[] getCubesPerLevel() {
+        int[] ct = new int[levels];
+        for (int i = 0; i < levels; i++)
+            ct[i] = levelStart[i + 1] - levelStart[i];
+        return ct;
+    }
+
+    /*
+     * Merge partners looked up by the last generate()
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public int primeCount() {
+        int ct = 0;
+        for (int i = 0; i < size; i++)
+            if (!isCovered(i))
+                ct++;
+        return ct;
+    }
+
+    /*
+     * List all prime implicants, last level first, like lstPrime in
+     * Solver.Solve()
+     */
+    public ArrayList<Implicant> getPrimes() {
+        ArrayList<Implicant> lstPrime = new ArrayList<>(primeCount());
+        for (int i = size - 1; i >= 0; i--)
+            if (!isCovered(i))
+                lstPrime.add(new Implicant(value(cubes.get(i)), mask(cubes.get(i))));
+        return lstPrime;
+    }
+
+    /*
+     * Every implicant found, in order, used to log the Quine–McCluskey
+     * internals
+     */
+    public int[] getCubes() {
+        int[] a = new int[size];
+        for (int i = 0; i < size; i++)
+            a[i] = cubes.get(i);
+        return a;
+    }
+
+    /*
+     * Copy of the covered bitset, bit i set when cube i is not prime
+     */
+    public long[] getCovered() {
+        return Arrays.copyOf(covered, (size >>> 6) + 1);
+    }
+
+    /*
+     * Open addressing map from packed cube to its position. Since the value
+     * never has a one where the mask has one, -1 is not a valid cube and
+     * marks an empty slot.
+     */
+    static final class CubeIndex {
+        private static final int EMPTY = -1;
+
+        private int[] keys;
+        private int[] positions;
+        private int capacityMask;
+        private int count;
+
+        CubeIndex(int expected) {
+            allocate(tableSize(expected));
+        }
+
+        private static int tableSize(int expected) {
+            return Math.max(16, Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1);
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            positions = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            capacityMask = capacity - 1;
+            count = 0;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /*
+         * Returns the position of key or -1 when it was never put
+         */
+        int get(int key) {
+            for (int i = hash(key) & capacityMask; ; i = (i + 1) & capacityMask) {
+                if (keys[i] == key)
+                    return positions[i];
+                if (keys[i] == EMPTY)
+                    return -1;
+            }
+        }
+
+        /*
+         * Returns false if the key was already there, in that case the old
+         * position is kept
+         */
+        boolean put(int key, int position) {
+            if ((count + 1) << 1 > keys.length)
+                rehash();
+            int i = hash(key) & capacityMask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key)
+                    return false;
+                i = (i + 1) & capacityMask;
+            }
+            keys[i] = key;
+            positions[i] = position;
+            count++;
+            return true;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldPositions = positions;
+            allocate(oldKeys.length << 1);
+            for (int i = 0; i < oldKeys.length; i++)
+                if (oldKeys[i] != EMPTY)
+                    put(oldKeys[i], oldPositions[i]);
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * class QMReport keeps the steps of the Quine–McCluskey algorithm of each
+ * output in compact form: packed cubes (see PrimeGenerator.pack), minterms
+ * and the covers found as bitsets. Nothing is formatted while solving; the
+ * HTML tables are written only when the report is rendered.
+ *
+ * The report is split in pages of at most ROWS_PER_PAGE table rows, so a
+ * big report can be streamed to a Writer without holding it all in memory.
+ * Pages are consecutive pieces of the same document: rendering every page
+ * in order gives the whole report.
+ */
+package org.xhanka.k_map.lib;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+public final class QMReport {
+
+    public static final int ROWS_PER_PAGE = 256;
+
+    private static final String TABLE = "<br><table cellspacing=\"1\" cellpadding=\"5\" margin-bottom=\"20px\" margin-top=\"20px\" border=\"0\" border-collapse=\"collapse\" align=\"center\" font=\"#DEFAULT\" color=\"blue\" bgcolor=\"blue\">";
+
+    /*
+     * Steps of one output, filled by Solver
+     */
+    static final class Output {
+        final String name;
+        int[] cubes;                  // every implicant, merge level by merge level
+        long[] covered;               // bit i set if cubes[i] is not prime
+        int[] ones;                   // minterms to cover
+        int[] essentials;             // essential prime implicants
+        int[] primes;                 // prime implicants left for the chart
+        int[] chartOnes;              // minterms left for the chart
+        int[] core;                   // prime implicants of the cyclic core, over primes
+        int[] coreOnes;               // minterms of the cyclic core
+        ArrayList<long[]> expansion;  // the core's product multiplied out, over primes
+        ArrayList<long[]> covers;     // cheapest covers, over primes
+
+        private boolean[] essentialCover;
+
+        Output(String name) {
+            this.name = name;
+        }
+
+        boolean hasChart() {
+            return primes.length > 0 && chartOnes.length > 0;
+        }
+
+        /*
+         * Rows: the header, one per implicant, the end of the implicant
+         * table with the header of the chart, one per essential and
+         * non-essential prime implicant, the end of the chart and then
+         * Petrick's Method
+         */
+        int rows() {
+            return cubes.length + essentials.length + primes.length + (hasChart() ? 4 : 3);
+        }
+    }
+
+    private final int number_of_in_var;
+    private final String[] in_var_names;
+    private final VariableNames names;
+    private final boolean sum_of_products_not_product_of_sums;
+    private final ArrayList<Output> outputs = new ArrayList<>();
+
+    QMReport(int number_of_in_var, String[] in_var_names, VariableNames names, boolean sum_of_products_not_product_of_sums) {
+        this.number_of_in_var = number_of_in_var;
+        this.in_var_names = in_var_names;
+        this.names = names;
+        this.sum_of_products_not_product_of_sums = sum_of_products_not_product_of_sums;
+    }
+
+    void add(Output output) {
+        outputs.add(output);
+    }
+
+    public int getPageCount() {
+        long rows = 0;
+        for (Output o : outputs)
+            rows += o.rows();
+        return (int) ((rows + ROWS_PER_PAGE - 1) / ROWS_PER_PAGE);
+    }
+
+    public void render(Appendable out) throws IOException {
+        for (Output o : outputs)
+            for (int r = 0; r < o.rows(); r++)
+                row(out, o, r);
+    }
+
+    public void renderPage(int page, Appendable out) throws IOException {
+        long from = (long) page * ROWS_PER_PAGE;
+        long to = from + ROWS_PER_PAGE;
+        long start = 0;
+        for (Output o : outputs) {
+            long end = start + o.rows();
+            for (long r = Math.max(from, start); r < Math.min(to, end); r++)
+                row(out, o, (int) (r - start));
+            start = end;
+            if (start >= to)
+                break;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        try {
+            render(buf);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+        }
+        return buf.toString();
+    }
+
+    private void row(Appendable out, Output o, int r) throws IOException {
+        if (r == 0) {
+            implicantsHeader(out, o);
+            return;
+        }
+        r--;
+        if (r < o.cubes.length) {
+            implicant(out, o, r);
+            return;
+        }
+        r -= o.cubes.length;
+        if (r == 0) {
+            out.append("</table>");
+            chartHeader(out, o);
+            return;
+        }
+        r--;
+        if (r < o.essentials.length) {
+            essential(out, o, r);
+            return;
+        }
+        r -= o.essentials.length;
+        if (r < o.primes.length) {
+            prime(out, o, r);
+            return;
+        }
+        r -= o.primes.length;
+        if (r == 0) {
+            out.append("</table>");
+            return;
+        }
+        petrick(out, o);
+    }
+
+    private void implicantsHeader(Appendable out, Output o) throws IOException {
+        out.append(o.name);
+        out.append(TABLE);
+        out.append("<tr><td bgcolor=\"#FAF0E6\" align=\"center\">#</td>");
+        for (int i = 0; i < number_of_in_var; i++) {
+            out.append("<td bgcolor=\"#FAF0E6\" align=\"center\">");
+            out.append(in_var_names[i]);
+            out.append("</td>");
+        }
+        out.append("<td bgcolor=\"#FAF0E6\"></td></tr>");
+    }
+
+    private void implicant(Appendable out, Output o, int i) throws IOException {
+        int c = o.cubes[i];
+        int lbc = Integer.bitCount(PrimeGenerator.value(c));
+        if (i == 0 || lbc != Integer.bitCount(PrimeGenerator.value(o.cubes[i - 1]))) {
+            out.append("<tr><td bgcolor=\"#FAF0E6\"></td><td bgcolor=\"#CDD2E6\" align=\"center\" colspan=\"");
+            out.append(String.valueOf(number_of_in_var));
+            out.append("\">");
+            out.append(String.valueOf(lbc));
+            out.append("</td><td bgcolor=\"#FAF0E6\"></td></tr>");
+        }
+        out.append("<tr><td bgcolor=\"#FAF0E6\" align=\"right\">");
+        out.append(implicant(c).toStringSimp());
+        out.append("</td>");
+        bits(out, c);
+        out.append("<td bgcolor=\"#FAF0E6\" align=\"center\">");
+        out.append((o.covered[i >>> 6] & (1L << i)) != 0L ? ' ' : '*');
+        out.append("</td></tr>");
+    }
+
+    private void chartHeader(Appendable out, Output o) throws IOException {
+        boolean[] essentialCover = essentialCover(o);
+        out.append(TABLE);
+        out.append("<tr><td bgcolor=\"#FAF0E6\" align=\"center\" colspan=\"2\">#</td>");
+        for (int i = 0; i < number_of_in_var; i++) {
+            out.append("<td bgcolor=\"#FAF0E6\" align=\"center\">");
+            out.append(in_var_names[i]);
+            out.append("</td>");
+        }
+        for (int i = 0; i < o.ones.length; i++) {
+            out.append("<td bgcolor=\"#");
+            out.append(essentialCover[i] ? "CDD2E6" : "C4E0E0");
+            out.append("\" align=\"center\">");
+            out.append(String.valueOf(o.ones[i]));
+            out.append("</td>");
+        }
+        out.append("<td bgcolor=\"#FAF0E6\"></td></tr>");
+    }
+
+    private void essential(Appendable out, Output o, int i) throws IOException {
+        boolean[] essentialCover = essentialCover(o);
+        int c = o.essentials[i];
+        out.append("<tr><td bgcolor=\"#FAF0E6\"></td><td bgcolor=\"#FAF0E6\" align=\"right\">");
+        out.append(implicant(c).toStringSimp());
+        out.append("</td>");
+        bits(out, c);
+        for (int j = 0; j < o.ones.length; j++) {
+            out.append("<td bgcolor=\"#");
+            out.append(essentialCover[j] ? "CDD2E6" : "C4E0E0");
+            out.append("\" align=\"center\">");
+            if (isTrue(c, o.ones[j])) {
+                // the only prime implicant covering the minterm
+                boolean cv = true;
+                for (int k = 0; k < o.essentials.length && cv; k++)
+                    if (k != i && isTrue(o.essentials[k], o.ones[j]))
+                        cv = false;
+                for (int k = 0; k < o.primes.length && cv; k++)
+                    if (isTrue(o.primes[k], o.ones[j]))
+                        cv = false;
+                out.append(cv ? "&#9679;" : "&#9675;");
+            }
+            out.append("</td>");
+        }
+        out.append("<td bgcolor=\"#FFFFFF\"align=\"left\"><font color=\"blue\">");
+        out.append(expression(c));
+        out.append("</font></td>");
+    }
+
+    private void prime(Appendable out, Output o, int i) throws IOException {
+        boolean[] essentialCover = essentialCover(o);
+        int c = o.primes[i];
+        out.append("<tr><td bgcolor=\"#FAF0E6\">");
+        out.append((char) ('A' + i));
+        out.append("</td><td bgcolor=\"#FAF0E6\" align=\"right\">");
+        out.append(implicant(c).toStringSimp());
+        out.append("</td>");
+        bits(out, c);
+        for (int j = 0; j < o.ones.length; j++) {
+            out.append("<td bgcolor=\"#");
+            out.append(essentialCover[j] ? "CDD2E6" : "C4E0E0");
+            out.append("\" align=\"center\">");
+            out.append(isTrue(c, o.ones[j]) ? "&#9675;" : " ");
+            out.append("</td>");
+        }
+        out.append("<td bgcolor=\"#FFFFFF\" align=\"left\"><font color=\"green\">");
+        out.append(expression(c));
+        out.append("</font></td>");
+    }
+
+    /*
+     * Product of sums of the chart; when Petrick's Method multiplied it out,
+     * the product of the cyclic core the chart reduces to and its
+     * expansion; then the cheapest covers
+     */
+    private void petrick(Appendable out, Output o) throws IOException {
+        int[] all = new int[o.primes.length];
+        for (int i = 0; i < all.length; i++)
+            all[i] = i;
+        product(out, o, all, o.chartOnes);
+        if (o.expansion != null) {
+            out.append("<br>");
+            product(out, o, o.core, o.coreOnes);
+            out.append(" = ");
+            sum(out, o.expansion, o.primes.length);
+            out.append("<br>");
+        }
+        sum(out, o.covers, o.primes.length);
+        out.append("<br><br>");
+    }
+
+    /*
+     * One sum per minterm of ones: the prime implicants of rows, by their
+     * letter, covering it
+     */
+    private static void product(Appendable out, Output o, int[] rows, int[] ones) throws IOException {
+        boolean f1 = false;
+        for (int one : ones) {
+            boolean grouped = false;
+            if (f1) {
+                out.append(" . ");
+            } else {
+                f1 = true;
+            }
+            for (int i : rows) {
+                if (isTrue(o.primes[i], one)) {
+                    if (grouped) {
+                        out.append(" + ");
+                    } else {
+                        out.append('(');
+                        grouped = true;
+                    }
+                    out.append((char) ('A' + i));
+                }
+            }
+            if (grouped) {
+                out.append(')');
+            }
+        }
+    }
+
+    private static void sum(Appendable out, ArrayList<long[]> terms, int primes) throws IOException {
+        boolean grouped = false;
+        for (long[] t : terms) {
+            if (grouped) {
+                out.append(" + ");
+            } else {
+                grouped = true;
+            }
+            boolean f1 = false;
+            for (int i = 0; i < primes; i++) {
+                if ((t[i >>> 6] & (1L << i)) != 0L) {
+                    if (f1) {
+                        out.append('.');
+                    } else {
+                        f1 = true;
+                    }
+                    out.append((char) ('A' + i));
+                }
+            }
+        }
+    }
+
+    private void bits(Appendable out, int c) throws IOException {
+        int v = PrimeGenerator.value(c);
+        int m = PrimeGenerator.mask(c);
+        for (int j = 0; j < number_of_in_var; j++) {
+            int b = 1 << (number_of_in_var - j - 1);
+            out.append("<td bgcolor=\"#FFFFFF\" align=\"center\">");
+            out.append((m & b) != 0 ? '-' : (v & b) != 0 ? '1' : '0');
+            out.append("</td>");
+        }
+    }
+
+    /*
+     * Minterms covered by an essential prime implicant
+     */
+    private static boolean[] essentialCover(Output o) {
+        if (o.essentialCover == null) {
+            boolean[] cover = new boolean[o.ones.length];
+            for (int i = 0; i < o.ones.length; i++)
+                for (int j = 0; j < o.essentials.length && !cover[i]; j++)
+                    cover[i] = isTrue(o.essentials[j], o.ones[i]);
+            o.essentialCover = cover;
+        }
+        return o.essentialCover;
+    }
+
+    private static boolean isTrue(int cube, int x) {
+        return ((PrimeGenerator.value(cube) ^ x) & ~PrimeGenerator.mask(cube)) == 0;
+    }
+
+    private static Implicant implicant(int cube) {
+        return new Implicant(PrimeGenerator.value(cube), PrimeGenerator.mask(cube));
+    }
+
+    private StringBuilder expression(int cube) {
+        return sum_of_products_not_product_of_sums
+                ? implicant(cube).toExpressionProd(names)
+                : implicant(cube).toExpressionSum(names);
+    }
+}
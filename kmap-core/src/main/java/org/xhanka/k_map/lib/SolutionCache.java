@@ -0,0 +1,178 @@
+/*
+ * class SolutionCache keeps the last solved truth tables, least recently
+ * used first out. The key is the truth table packed as bitsets of ones and
+ * don't cares plus the variable names and every option that changes the
+ * result (see Solver.cacheKey()), so a map solved before, like a cell
+ * toggled back, comes back without running the solver again.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class SolutionCache {
+
+    /*
+     * Truth table and options of a solve
+     */
+    public static final class Key {
+        private final int number_of_in_var;
+        private final int number_of_out_var;
+        private final long[] ones;     // per output, (1 << number_of_in_var) bits each
+        private final long[] dontCare;
+        private final long options;    // flags and cover engine, the solution limit in the upper half
+        private final long order;      // Karnaugh order, 4 bits per variable
+        private final String[] names;  // input then output variables
+        private final int hash;
+
+        Key(int number_of_in_var, int number_of_out_var, long[] ones, long[] dontCare, long options, long order, String[] names) {
+            this.number_of_in_var = number_of_in_var;
+            this.number_of_out_var = number_of_out_var;
+            this.ones = ones;
+            this.dontCare = dontCare;
+            this.options = options;
+            this.order = order;
+            this.names = names;
+            int h = 31 * number_of_in_var + number_of_out_var;
+            h = 31 * h + Arrays.hashCode(ones);
+            h = 31 * h + Arrays.hashCode(dontCare);
+            h = 31 * h + (int) (options ^ (options >>> 32));
+            h = 31 * h + (int) (order ^ (order >>> 32));
+            h = 31 * h + Arrays.hashCode(names);
+            hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return hash == k.hash && number_of_in_var == k.number_of_in_var
+                    && number_of_out_var == k.number_of_out_var && options == k.options
+                    && order == k.order && Arrays.equals(ones, k.ones)
+                    && Arrays.equals(dontCare, k.dontCare) && Arrays.equals(names, k.names);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /*
+     * What a solve leaves: the prime implicants of each output, the
+     * formatted solution, the color maps of the cells with their groups and the
+     * truth table with the coverage of each solution
+     */
+    public static final class Entry {
+        private final ArrayList<Solutions> solutions;
+        private final String solution;
+        private final ColoredText coloredSolution;
+        private final ArrayList<int[]> colorMaps;
+        private final ArrayList<ArrayList<Implicant>> groups;
+        private final TruthTableCoverage truthTable;
+
+        Entry(ArrayList<Solutions> solutions, String solution, ColoredText coloredSolution, ArrayList<int[]> colorMaps,
+              ArrayList<ArrayList<Implicant>> groups, TruthTableCoverage truthTable) {
+            this.solutions = solutions;
+            this.solution = solution;
+            this.coloredSolution = coloredSolution;
+            this.colorMaps = colorMaps;
+            this.groups = groups;
+            this.truthTable = truthTable;
+        }
+
+        public ArrayList<Solutions> getSolutions() {
+            return solutions;
+        }
+
+        public String getSolution() {
+            return solution;
+        }
+
+        public ColoredText getColoredSolution() {
+            return coloredSolution;
+        }
+
+        /*
+         * One color per minterm for each output, see Solver.getColorMaps()
+         */
+        public ArrayList<int[]> getColorMaps() {
+            return colorMaps;
+        }
+
+        /*
+         * Implicants of each color map, see Solver.getGroups()
+         */
+        public ArrayList<ArrayList<Implicant>> getGroups() {
+            return groups;
+        }
+
+        public TruthTableCoverage getTruthTable() {
+            return truthTable;
+        }
+    }
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(int capacity) {
+        entries = new LinkedHashMap<Key, SolutionCache.Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SolutionCache.Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /*
+     * Returns the cached result for the truth table and options of solver,
+     * running it only when they are not in the cache. A solution that may
+     * not be the cheapest (see Solver.isMinimal()), a list of them cut
+     * short (see Solver.isTruncated()) or a run out of memory (see
+     * Solver.isFailed()) is returned but not kept, the next solve may go
+     * further.
+     */
+    public Entry solve(Solver solver) {
+        Key key = solver.cacheKey();
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                hits++;
+                return e;
+            }
+            misses++;
+        }
+        // solved outside the lock, concurrent misses of one table all solve it
+        solver.run();
+        Entry e = new Entry(solver.solutions, solver.getSolution(), solver.getColoredSolution(), solver.getColorMaps(), solver.getGroups(),
+                solver.getTruthTableCoverage());
+        if (!solver.isFailed() && solver.isMinimal() && !solver.isTruncated()) {
+            synchronized (this) {
+                entries.put(key, e);
+            }
+        }
+        return e;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
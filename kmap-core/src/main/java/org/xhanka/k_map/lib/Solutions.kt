@@ -6,6 +6,9 @@ import java.util.*
 class Solutions internal constructor() {
     var essentialsPI: ArrayList<Implicant>? = null
     var primeI: ArrayList<ArrayList<Implicant>>? = null
+    var perfectTruth = false // no zero in the output, it is always true
+    var isMinimal = true // false when covered greedily or not every prime implicant was generated, may not be the cheapest
+    var isTruncated = false // every solution asked for but the budget ran out, some cheapest ones may be missing
 
     fun setEssentialPI(essentialsPI: ArrayList<Implicant>?) {
         this.essentialsPI = essentialsPI
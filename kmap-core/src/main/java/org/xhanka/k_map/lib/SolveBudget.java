@@ -0,0 +1,93 @@
+/*
+ * class SolveBudget bounds a solve: a time limit, the most terms Petrick's
+ * product may hold and the most cubes the merge phase may build, 0 for no
+ * limit. The merge loop and the cover search check it as they go; once a
+ * limit is passed they stop, and the solve answers with what it has: the
+ * cubes merged so far instead of the prime implicants, the best cover the
+ * search found or else a greedy one (see GreedyCover), the cheapest covers
+ * listed so far. Such an answer is right but maybe not minimal or not
+ * every solution, Solver.isMinimal() and isTruncated() tell.
+ */
+package org.xhanka.k_map.lib;
+
+public final class SolveBudget {
+
+    public static final SolveBudget UNLIMITED = new SolveBudget(0L, 0, 0);
+
+    private final long timeoutNanos;
+    private final int maxTerms;
+    private final int maxCubes;
+
+    public SolveBudget(long timeoutMillis, int maxTerms, int maxCubes) {
+        if (timeoutMillis < 0L || maxTerms < 0 || maxCubes < 0)
+            throw new IllegalArgumentException("a budget cannot be negative");
+        this.timeoutNanos = timeoutMillis * 1000000L;
+        this.maxTerms = maxTerms;
+        this.maxCubes = maxCubes;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutNanos / 1000000L;
+    }
+
+    public int getMaxTerms() {
+        return maxTerms;
+    }
+
+    public int getMaxCubes() {
+        return maxCubes;
+    }
+
+    /*
+     * The budget of one output of a solve started at startTime (from
+     * System.nanoTime())
+     */
+    Tracker track(long startTime) {
+        return new Tracker(startTime + timeoutNanos);
+    }
+
+    /*
+     * Spends the budget of one output, used by one thread. Once a limit is
+     * passed every check says so.
+     */
+    final class Tracker {
+        private final long deadline;
+        private boolean exceeded;
+        private int checks;
+
+        private Tracker(long deadline) {
+            this.deadline = deadline;
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+
+        /*
+         * Whether time is up, the clock is read every 64 checks
+         */
+        boolean timeUp() {
+            if (!exceeded && timeoutNanos > 0L && (checks++ & 63) == 0 && System.nanoTime() - deadline > 0L)
+                exceeded = true;
+            return exceeded;
+        }
+
+        /*
+         * Whether count cubes, or time, are past the budget
+         */
+        boolean cubes(int count) {
+            if (maxCubes > 0 && count > maxCubes)
+                exceeded = true;
+            return timeUp();
+        }
+
+        /*
+         * Same for count terms of Petrick's product
+         */
+        boolean terms(int count) {
+            if (maxTerms > 0 && count > maxTerms)
+                exceeded = true;
+            return timeUp();
+        }
+    }
+}
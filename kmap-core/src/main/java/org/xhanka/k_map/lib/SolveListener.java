@@ -0,0 +1,21 @@
+package org.xhanka.k_map.lib;
+
+/*
+ * Gets the metrics of every solve of the solvers it is set on (see
+ * Solver.setSolveListener), to log them or gather histograms. Called on
+ * the thread that solves.
+ */
+public interface SolveListener {
+
+    /*
+     * Solve() is done, metrics has every phase but the formatting
+     */
+    void onSolve(SolveMetrics metrics);
+
+    /*
+     * Format() is done, metrics is the one given to onSolve with the
+     * formatting time set
+     */
+    default void onFormat(SolveMetrics metrics) {
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * class SolveMetrics is what a solve cost. For each output: the time of
+ * each phase (gathering the minterms, generating the prime implicants,
+ * covering), the cubes of each merge level, the comparisons made looking
+ * for merge partners, the prime implicants and the essential ones, the
+ * cyclic core left to the cover and the most terms Petrick's product held
+ * at once. For the whole solve: its time and the time to format it.
+ *
+ * Solver.getMetrics() gives those of the last solve. A SolveListener gets
+ * them when Solve() ends, every output done, and again with the time to
+ * format when Format() ends. Outputs solved outside a Quine–McCluskey run
+ * (never true, never false) keep zeros.
+ */
+package org.xhanka.k_map.lib;
+
+public final class SolveMetrics {
+
+    public static final class Output {
+        long sortNanos;
+        long primeNanos;
+        long coverNanos;
+        int[] cubesPerLevel = new int[0];
+        long comparisons;
+        int primes;
+        int essentials;
+        int corePrimes;
+        int coreOnes;
+        int petrickPeak;
+        boolean budgetExceeded;
+
+        public long getSortNanos() {
+            return sortNanos;
+        }
+
+        public long getPrimeNanos() {
+            return primeNanos;
+        }
+
+        public long getCoverNanos() {
+            return coverNanos;
+        }
+
+        /*
+         * Implicants found at each merge level, minterms first
+         */
+        public int[] getCubesPerLevel() {
+            return cubesPerLevel;
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public int getPrimes() {
+            return primes;
+        }
+
+        public int getEssentials() {
+            return essentials;
+        }
+
+        /*
+         * Prime implicants and ones of the cyclic core, what is left once
+         * the essentials and the dominated rows and columns are gone
+         */
+        public int getCorePrimes() {
+            return corePrimes;
+        }
+
+        public int getCoreOnes() {
+            return coreOnes;
+        }
+
+        /*
+         * Most terms of Petrick's product at once, 0 for the other engines
+         */
+        public int getPetrickPeak() {
+            return petrickPeak;
+        }
+
+        /*
+         * The output ran out of its SolveBudget, its cover may not be the
+         * cheapest or its list of covers may be cut short (see
+         * Solver.isMinimal() and isTruncated())
+         */
+        public boolean isBudgetExceeded() {
+            return budgetExceeded;
+        }
+    }
+
+    private final Output[] outputs;
+    long solveNanos;
+    long formatNanos;
+
+    SolveMetrics(int number_of_out_var) {
+        outputs = new Output[number_of_out_var];
+        for (int f = 0; f < number_of_out_var; f++)
+            outputs[f] = new Output();
+    }
+
+    public int getNumberOfOutVar() {
+        return outputs.length;
+    }
+
+    public Output getOutput(int f) {
+        return outputs[f];
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    /*
+     * 0 until Format() ran
+     */
+    public long getFormatNanos() {
+        return formatNanos;
+    }
+}
@@ -0,0 +1,1277 @@
+/*
+ *<JQM - Java Quine McCluskey>
+ *Copyright (C) <2016>  <Luis Paulo Laus, laus@utfpr.edu.br>
+ *
+ *This program is free software: you can redistribute it and/or modify
+ *it under the terms of the GNU General Public License as published by
+ *the Free Software Foundation, either version 3 of the License, or
+ *(at your option) any later version.
+ *
+ *This program is distributed in the hope that it will be useful,
+ *but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *GNU General Public License for more details.
+ *
+ *You should have received a copy of the GNU General Public License
+ *along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+///////////////////////////////////////////////////////////////////////
+
+/*
+ * class solver has the functions that minimize the truth table
+ * using Quine–McCluskey algorithm and call the output class to
+ * format the answer in a readable string
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class Solver implements Runnable {
+
+    public static final char DONT_CARE_CHAR = '-';
+
+    private final TruthTable values;
+
+    private final int number_of_in_var;
+    private final int number_of_out_var;
+    private final int[] KarnaughInOrder;
+
+
+    private final String[] in_var_names;
+    private final String[] out_var_names;
+    private final VariableNames names; // used to write the implicants
+
+    private final boolean sum_of_products_not_product_of_sums;
+    private final boolean all_possible_not_just_one;
+    private final boolean optimize_number_of_terms_not_variables;
+
+    private final boolean expression;
+    private final boolean expressionSorted;
+    private final boolean QuineMcCluskey;
+
+    private final StringBuilder solution;
+    private final ColoredText coloredSolution; // Karnaugh Map solution
+    private boolean karnaughFormatted = false;
+    private QMReport QMinternals;
+    private boolean failed;
+    private TruthTableCoverage truthTableCoverage;
+    private ColorMap colorMap;
+    private final ArrayList<int[]> colorMaps = new ArrayList<>();
+    private final ArrayList<ArrayList<Implicant>> groups = new ArrayList<>();
+
+    private SolveMetrics metrics;
+    private SolveListener listener;
+
+    ArrayList<Solutions> solutions;
+
+    public Solver(
+            char[][] values,
+            int number_of_in_var,
+            String[] in_var_names,
+            int number_of_out_var,
+            String[] out_var_names,
+            boolean sum_of_products_not_product_of_sums,
+            boolean all_possible_not_just_one,
+            boolean optimize_number_of_terms_not_variables,
+            boolean expression,
+            boolean expressionSorted,
+            boolean QuineMcCluskey,
+            int[] KarnaughInOrder
+    ) {
+        this(
+                TruthTable.fromValues(values, number_of_in_var, number_of_out_var),
+                in_var_names,
+                out_var_names,
+                sum_of_products_not_product_of_sums,
+                all_possible_not_just_one,
+                optimize_number_of_terms_not_variables,
+                expression,
+                expressionSorted,
+                QuineMcCluskey,
+                KarnaughInOrder
+        );
+    }
+
+    public Solver(
+            TruthTable values,
+            String[] in_var_names,
+            String[] out_var_names,
+            boolean sum_of_products_not_product_of_sums,
+            boolean all_possible_not_just_one,
+            boolean optimize_number_of_terms_not_variables,
+            boolean expression,
+            boolean expressionSorted,
+            boolean QuineMcCluskey,
+            int[] KarnaughInOrder
+    ) {
+        int number_of_in_var = values.getNumberOfInVar();
+        int number_of_out_var = values.getNumberOfOutVar();
+        this.values = values;
+        this.number_of_in_var = number_of_in_var;
+        this.in_var_names = in_var_names;
+        this.names = new VariableNames(number_of_in_var, in_var_names);
+        this.number_of_out_var = number_of_out_var;
+        this.out_var_names = out_var_names;
+        this.sum_of_products_not_product_of_sums = sum_of_products_not_product_of_sums;
+        this.all_possible_not_just_one = all_possible_not_just_one;
+        this.optimize_number_of_terms_not_variables = optimize_number_of_terms_not_variables;
+        this.expression = expression;
+        this.expressionSorted = expressionSorted;
+        this.QuineMcCluskey = QuineMcCluskey;
+        this.KarnaughInOrder = KarnaughInOrder;
+
+        solution = new StringBuilder();
+        coloredSolution = new ColoredText();
+    }
+
+    /*
+     * This version uses array instead of ArrayList. As consequences, it
+     * optimizes the use of memory and CPU running much faster than the
+     * original version.
+     */
+    private boolean packedPrimes = true;
+    private boolean offHeapCubes = false;
+    private CoverEngine coverEngine = CoverEngine.PETRICK;
+    private ForkJoinPool pool = null;
+    private SolveBudget budget = SolveBudget.UNLIMITED;
+    private int solutionLimit = 0;
+    private MinimalCovers[] minimalCovers;
+
+    /*
+     * Selects how prime implicants are generated: packed cubes (default) or
+     * the original array of Implicant, kept for comparison
+     */
+    public void setPackedPrimes(boolean packedPrimes) {
+        this.packedPrimes = packedPrimes;
+    }
+
+    /*
+     * Keeps the packed cubes in direct buffers, outside of the Java heap
+     */
+    public void setOffHeapCubes(boolean offHeapCubes) {
+        this.offHeapCubes = offHeapCubes;
+    }
+
+    /*
+     * Selects how the non-essential prime implicants are chosen
+     */
+    public void setCoverEngine(CoverEngine coverEngine) {
+        this.coverEngine = coverEngine;
+    }
+
+    /*
+     * Minimizes the outputs in parallel on pool, null (default) solves them
+     * one after the other on the calling thread
+     */
+    public void setParallel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /*
+     * Bounds each solve, past it the answer may not be minimal (see
+     * isMinimal) or miss some solutions (see isTruncated). The deadline is
+     * shared by all outputs and counts from the start of Solve(); the
+     * limits on terms and cubes apply to each output on its own.
+     */
+    public void setBudget(SolveBudget budget) {
+        this.budget = budget == null ? SolveBudget.UNLIMITED : budget;
+    }
+
+    /*
+     * Keeps at most limit solutions of each output, 0 (default) keeps them
+     * all. Only as many are formatted, the others can still be taken from
+     * getMinimalCovers; only BRANCH_AND_BOUND leaves them unsearched until
+     * then.
+     */
+    public void setSolutionLimit(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("negative limit " + limit);
+        this.solutionLimit = limit;
+    }
+
+    /*
+     * The cheapest covers of output f found by the last solve, searched for
+     * as they are taken with BRANCH_AND_BOUND. Null when the output needs no
+     * choice beyond its essential prime implicants (Solutions.primeI is
+     * null) or before the first solve.
+     */
+    public MinimalCovers getMinimalCovers(int f) {
+        return minimalCovers == null ? null : minimalCovers[f];
+    }
+
+    /*
+     * False if the last solve covered some output greedily, on its own or
+     * out of budget, or ran out of budget before every prime implicant was
+     * generated: its solutions then cover the function but may not be the
+     * cheapest
+     */
+    public boolean isMinimal() {
+        if (solutions == null)
+            return true;
+        for (Solutions sol : solutions)
+            if (!sol.isMinimal())
+                return false;
+        return true;
+    }
+
+    /*
+     * True if every solution was asked for and the last solve ran out of
+     * budget on some output, its list of solutions may then miss some of
+     * the cheapest (see isMinimal for the ones it has)
+     */
+    public boolean isTruncated() {
+        if (solutions == null)
+            return false;
+        for (Solutions sol : solutions)
+            if (sol.isTruncated())
+                return true;
+        return false;
+    }
+
+    /*
+     * Gets the metrics of each solve and formatting of this solver
+     */
+    public void setSolveListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    /*
+     * What the last solve cost, null before the first one
+     */
+    public SolveMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * Identifies the truth table, names and options of this solver, equal
+     * keys give the same result
+     */
+    public SolutionCache.Key cacheKey() {
+        int w = values.getWords();
+        long[] ones = new long[w * number_of_out_var];
+        long[] dontCare = new long[w * number_of_out_var];
+        for (int f = 0; f < number_of_out_var; f++) {
+            values.getOnes(f, ones, f * w);
+            values.getDontCares(f, dontCare, f * w);
+        }
+        long options = (sum_of_products_not_product_of_sums ? 1 : 0)
+                | (all_possible_not_just_one ? 2 : 0)
+                | (optimize_number_of_terms_not_variables ? 4 : 0)
+                | (expression ? 8 : 0)
+                | (expressionSorted ? 16 : 0)
+                | (QuineMcCluskey ? 32 : 0)
+                | ((long) coverEngine.ordinal() << 6);
+        options |= ((long) solutionLimit) << 32;
+        long order = 0L;
+        for (int i = 0; i < number_of_in_var; i++)
+            order |= ((long) KarnaughInOrder[i]) << (i << 2);
+        String[] names = new String[number_of_in_var + number_of_out_var];
+        System.arraycopy(in_var_names, 0, names, 0, number_of_in_var);
+        System.arraycopy(out_var_names, 0, names, number_of_in_var, number_of_out_var);
+        return new SolutionCache.Key(number_of_in_var, number_of_out_var, ones, dontCare, options, order, names);
+    }
+
+    public void Solve() {
+        long startTime = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics(number_of_out_var);
+        minimalCovers = new MinimalCovers[number_of_out_var];
+        solutions = new ArrayList<>(number_of_out_var);
+        for (int f = 0; f < number_of_out_var; f++)
+            solutions.add(new Solutions());
+
+        /*
+         * Outputs are independent: each one writes only its own Solutions,
+         * times and steps of the Quine–McCluskey internals, which are joined
+         * in order at the end
+         */
+        QMReport.Output[] qm = new QMReport.Output[number_of_out_var];
+        if (pool == null || number_of_out_var < 2) {
+            for (int f = 0; f < number_of_out_var; f++)
+                qm[f] = SolveOutput(f, solutions.get(f), metrics.getOutput(f), budget.track(startTime));
+        } else {
+            ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>(number_of_out_var);
+            for (int f = 0; f < number_of_out_var; f++) {
+                final int o = f;
+                tasks.add(pool.submit(() -> {
+                    qm[o] = SolveOutput(o, solutions.get(o), metrics.getOutput(o), budget.track(startTime));
+                }));
+            }
+            for (ForkJoinTask<?> t : tasks)
+                t.join();
+        }
+        if (QuineMcCluskey) {
+            QMinternals = new QMReport(number_of_in_var, in_var_names, names, sum_of_products_not_product_of_sums);
+            for (QMReport.Output steps : qm)
+                if (steps != null)
+                    QMinternals.add(steps);
+        }
+        metrics.solveNanos = System.nanoTime() - startTime;
+        this.metrics = metrics;
+        if (listener != null)
+            listener.onSolve(metrics);
+    }
+
+    /*
+     * Steps of the Quine–McCluskey algorithm of the last solve, null if
+     * QuineMcCluskey is false. Rendered only when asked for.
+     */
+    public QMReport getQMReport() {
+        return QMinternals;
+    }
+
+    /*
+     * Minimizes output f into sol and returns the steps of the
+     * Quine–McCluskey internals, or null if there are none. Only state
+     * owned by this output is written, so outputs can be solved at the
+     * same time. What each phase cost goes to metrics, what it may cost to
+     * tracker.
+     */
+    private QMReport.Output SolveOutput(int f, Solutions sol, SolveMetrics.Output metrics, SolveBudget.Tracker tracker) {
+        long startTime = System.nanoTime(); // time test
+        ArrayList<Integer> lstOnes = new ArrayList<>(1 << number_of_in_var);
+        QMReport.Output steps = QuineMcCluskey ? new QMReport.Output(out_var_names[f]) : null;
+        // fill arrays with data from the truth table, walking the set bits
+        int mx = 1 << number_of_in_var;
+        int[] lstTerms = new int[mx]; // ones and dont cares
+        int ct1 = 0;   // number of ones
+        int ctdc1 = 0;  // mumber of dont care and one
+        // ones of the function, zeros of the truth table for product of sums
+        char one = sum_of_products_not_product_of_sums ? '1' : '0';
+        for (int w = 0; w < values.getWords(); w++) {
+            long ones = values.word(f, w, one);
+            long terms = ones | values.word(f, w, DONT_CARE_CHAR);
+            for (; ones != 0L; ones &= ones - 1) {
+                lstOnes.add((w << 6) + Long.numberOfTrailingZeros(ones));
+                ct1++;
+            }
+            for (; terms != 0L; terms &= terms - 1) {
+                lstTerms[ctdc1] = (w << 6) + Long.numberOfTrailingZeros(terms);
+                ctdc1++;
+            }
+        }
+        // the function is never false
+        boolean perfectTruth = ctdc1 == mx;
+
+        sol.setPerfectTruth(perfectTruth);
+        if ((ctdc1 == mx) || (ct1 == 0) || perfectTruth) {
+            return null;
+        }
+
+        ArrayList<Implicant> lstPrime;
+        long sortedTime;
+        boolean minimal; // every prime implicant generated, then the cheapest cover found
+        if (packedPrimes) {
+            sortedTime = System.nanoTime();
+            PrimeGenerator generator = new PrimeGenerator(number_of_in_var, offHeapCubes);
+            generator.generate(lstTerms, ctdc1, tracker);
+            lstPrime = generator.getPrimes();
+            minimal = generator.isComplete();
+            metrics.cubesPerLevel = generator.getCubesPerLevel();
+            metrics.comparisons = generator.getComparisons();
+            if (QuineMcCluskey) {
+                steps.cubes = generator.getCubes();
+                steps.covered = generator.getCovered();
+            }
+        } else {
+            // grown on demand, 3^n implicants are the worst case but far from the usual one
+            Implicant[] lstPrimes = new Implicant[Math.max(ctdc1 << 1, 16)];
+            for (int i = 0; i < ctdc1; i++)
+                lstPrimes[i] = new Implicant(lstTerms[i]);
+            // sort the list of implicants by the number of ones, then value
+            Arrays.sort(lstPrimes, 0, ctdc1, (Implicant r1, Implicant r2) ->
+            {
+                int r1b = r1.bitCount_v();
+                int r2b = r2.bitCount_v();
+                if (r1b != r2b)
+                    return r1b - r2b;
+                return r1.getV() - r2.getV();
+            });
+            // begin and end of each sublist
+            int[] e = new int[number_of_in_var + 2];
+            int epos = 1;
+            int ct = 0;
+            e[0] = 0;
+            for (int i = 0; i < ctdc1; i++) {
+                int ctt = lstPrimes[i].bitCount_v();
+                while (ctt > ct) {
+                    ct++;
+                    e[epos] = i;
+                    epos++;
+                }
+            }
+            e[epos] = ctdc1;
+
+            sortedTime = System.nanoTime();
+//            System.out.println("Sorting time: " + (endTime - startTime) + " for " + number_of_in_var + " variables");
+
+            int[] cubesPerLevel = new int[number_of_in_var + 1];
+            int levels = 0;
+            cubesPerLevel[levels++] = ctdc1;
+            long comparisons = 0;
+            boolean grouped = true;
+            ct = number_of_in_var;
+            while (grouped && !tracker.isExceeded()) {
+                int before = ctdc1;
+                grouped = false;
+                merge:
+                for (int i = 0; i < ct; i++) {
+                    if (e[i] == e[i + 1])
+                        continue;
+                    int newstart = ctdc1;
+//                    System.out.println("at " + i + " from " + e[i] + " to " + (e[i+1]-1) + " and from " + e[i+1] + " to " + (e[i+2]-1));
+                    for (int j = e[i]; j < e[i + 1]; j++) {
+                        // out of budget, the implicants not merged still cover every minterm
+                        if (tracker.cubes(ctdc1))
+                            break merge;
+                        Implicant tempj = lstPrimes[j];
+                        for (int k = e[i + 1]; k < e[i + 2]; k++) {
+                            comparisons++;
+                            if (tempj.getM() == lstPrimes[k].getM()) { // same mask?
+                                int d = tempj.getV() ^ lstPrimes[k].getV();
+                                if (Integer.bitCount(d) == 1) { // Hamming distance is 1?
+                                    Implicant np = new Implicant(tempj.getV(), tempj.getM() | d);
+                                    // look for this prime implicant in the already found list of
+                                    // prime implicants, but only in this section of the list
+/*
+                                    // linear search
+                                    int x;
+                                    for (x = newstart; x < ctdc1; x++) {
+                                        if (np.equals(lstPrimes[x])) {
+                                            break;
+                                        }
+                                    }
+                                    if(x == ctdc1) { // new prime implicant found
+                                            if (lstPrimes.length == ctdc1)
+                                                lstPrimes = Arrays.copyOf(lstPrimes, ctdc1 << 1);
+
+                                            lstPrimes[ctdc1] = np;
+                                            ctdc1++;
+                                    }
+*/
+                                    d = Arrays.binarySearch(lstPrimes, newstart, ctdc1, np, (Implicant r1, Implicant r2) ->
+                                    {
+//                                        System.out.println("Comp " + r1 + " with " + r2);
+                                        // compare instead of subtract, 16 variables overflow the shifted difference
+                                        return r1.getV() != r2.getV() ? Integer.compare(r1.getV(), r2.getV()) : Integer.compare(r1.getM(), r2.getM());
+                                    });
+//                                    System.out.print("trying " + tempj + " with " + lstPrimes[k] + " " + d);
+                                    if (d < 0) { // new prime implicant found
+                                        if (lstPrimes.length == ctdc1)
+                                            lstPrimes = Arrays.copyOf(lstPrimes, ctdc1 << 1);
+
+                                        lstPrimes[ctdc1] = np;
+                                        ctdc1++;
+                                        // sort again, no big deal because the list is already sorted with the exception of the new element
+                                        Arrays.sort(lstPrimes, newstart, ctdc1, (Implicant r1, Implicant r2) ->
+                                        {
+                                            return r1.getV() != r2.getV() ? Integer.compare(r1.getV(), r2.getV()) : Integer.compare(r1.getM(), r2.getM());
+                                        });
+//                                            System.out.println(" OK " + ctdc1);
+                                    }
+//                                    else
+//                                        System.out.println("");
+                                    tempj.setC(true);
+                                    lstPrimes[k].setC(true);
+                                    grouped = true;
+                                }
+                            }
+                        }
+                    }
+                    e[i] = newstart;
+                }
+                e[ct] = ctdc1;
+                ct--;
+                if (ctdc1 > before)
+                    cubesPerLevel[levels++] = ctdc1 - before;
+            }
+            metrics.cubesPerLevel = Arrays.copyOf(cubesPerLevel, levels);
+            metrics.comparisons = comparisons;
+            // the merge stopped short when the budget ran out
+            minimal = !tracker.isExceeded();
+//            System.out.println("Implicantes " + ctdc1);
+            // list all prime implicants
+            lstPrime = new ArrayList<>(number_of_in_var);
+            for (int i = ctdc1 - 1; i >= 0; i--)
+                if (lstPrimes[i].isPrime())
+                    lstPrime.add(lstPrimes[i]);
+            if (QuineMcCluskey) {
+                steps.cubes = new int[ctdc1];
+                steps.covered = new long[(ctdc1 >>> 6) + 1];
+                for (int i = 0; i < ctdc1; i++) {
+                    steps.cubes[i] = PrimeGenerator.pack(lstPrimes[i].getV(), lstPrimes[i].getM());
+                    if (!lstPrimes[i].isPrime())
+                        steps.covered[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        long primeTime = System.nanoTime();
+        metrics.sortNanos = sortedTime - startTime;
+        metrics.primeNanos = primeTime - sortedTime;
+        metrics.primes = lstPrime.size();
+//            endTime = System.nanoTime(); // time test
+//            System.out.println("Execution time: " + (endTime - startTime) + " for " + number_of_in_var + " variables");
+
+        /*
+         * Look for essential prime implicants
+         * Not of cardinal importance because Petrick’s Method can deal with
+         * essentials and non-essentials prime implicants. But, if the
+         * essential prime implicants are removed, Petrick’s Method will
+         * deal only with non-essentials prime implicants. Since the
+         * product of sums grows exponentially with the number of prime
+         * implicants, removing the essentials ones is important for very
+         * big functions. The chart is later reduced further by dominance
+         * (see CoverTable).
+         */
+        if (QuineMcCluskey) {
+//                Collections.sort(lstPrime); // test
+            steps.ones = toArray(lstOnes);
+        }
+        // prime implicant chart, built once for the essentials and the cover search
+        CoverTable table = new CoverTable(number_of_in_var, lstPrime, lstOnes);
+        long[] cost = new long[lstPrime.size()];
+        for (int i = 0; i < lstPrime.size(); i++)
+            cost[i] = primeCost(lstPrime.get(i));
+        table.setCost(cost);
+
+        int[] essentials = table.extractEssentials();
+        ArrayList<Implicant> lstPrimeEssentials = new ArrayList<>(essentials.length);
+        for (int i : essentials)
+            lstPrimeEssentials.add(lstPrime.get(i));
+        metrics.essentials = essentials.length;
+        // prime implicants and ones left by the essentials
+        int[] rows = table.rows();
+        ArrayList<Implicant> lstPrimeAll = lstPrime;
+        lstPrime = new ArrayList<>(rows.length);
+        for (int r : rows)
+            lstPrime.add(lstPrimeAll.get(r));
+        ArrayList<Integer> lstOnesAll = lstOnes;
+        lstOnes = new ArrayList<>();
+        for (int c : table.columns())
+            lstOnes.add(lstOnesAll.get(c));
+        if (QuineMcCluskey) {
+            steps.essentials = pack(lstPrimeEssentials);
+            steps.primes = pack(lstPrime);
+            steps.chartOnes = toArray(lstOnes);
+        }
+
+        // register solution (up to now)
+        sol.setEssentialPI(lstPrimeEssentials);
+        // if there is any prime implicant left, Petrick's Method (or a
+        // search of the prime implicant chart) is used to find the
+        // minimum solution(s)
+        if ((lstPrime.size() > 0) && (lstOnes.size() > 0)) {
+            // reduce the chart to its cyclic core, the prime implicants
+            // selected on the way belong to every solution
+            int[] selected = table.reduce(all_possible_not_just_one);
+            int[] core = table.rows();
+            int[] coreOnes = table.columns();
+            metrics.corePrimes = core.length;
+            metrics.coreOnes = coreOnes.length;
+            int[] position = new int[core.length]; // in lstPrime
+            for (int i = 0; i < core.length; i++)
+                position[i] = Arrays.binarySearch(rows, core[i]);
+            if (QuineMcCluskey) {
+                steps.core = position;
+                steps.coreOnes = new int[coreOnes.length];
+                for (int k = 0; k < coreOnes.length; k++)
+                    steps.coreOnes[k] = lstOnesAll.get(coreOnes[k]);
+            }
+
+            // covers kept, the others are only handed out by getMinimalCovers
+            int keep = all_possible_not_just_one && solutionLimit > 0 ? solutionLimit : Integer.MAX_VALUE;
+            ArrayList<long[]> coreCovers;
+            Iterable<long[]> source = null;
+            Iterator<long[]> listed = null;
+            if (coreOnes.length == 0) {
+                coreCovers = new ArrayList<>(1);
+                coreCovers.add(new long[1]);
+            } else if (coverEngine == CoverEngine.GREEDY) {
+                coreCovers = greedy(table, core, coreOnes, cost);
+                minimal = false;
+            } else if (coverEngine == CoverEngine.BRANCH_AND_BOUND) {
+                BranchAndBoundCover cover = new BranchAndBoundCover(core.length, coreOnes.length);
+                for (int i = 0; i < core.length; i++) {
+                    cover.setCost(i, cost[core[i]]);
+                    for (int k = 0; k < coreOnes.length; k++) {
+                        if (table.covers(core[i], coreOnes[k])) {
+                            cover.set(i, k);
+                        }
+                    }
+                }
+                // the cheapest cost first, then its covers as far as kept
+                coreCovers = cover.solve(false, tracker);
+                // out of budget the cover found last is only the cheapest so far
+                minimal &= cover.isComplete();
+                if (all_possible_not_just_one && cover.isComplete() && !coreCovers.isEmpty()) {
+                    long cheapest = cover.getCost();
+                    listed = cover.covers(cheapest, tracker);
+                    source = () -> cover.covers(cheapest);
+                }
+            } else {
+                coreCovers = petrick(table, core, coreOnes, cost, position, lstPrime.size(), steps, metrics, tracker);
+            }
+            if (coreCovers == null || coreCovers.isEmpty()) {
+                // out of budget before any cover was found, take a greedy one
+                coreCovers = greedy(table, core, coreOnes, cost);
+                minimal = false;
+            }
+            long[] fixed = new long[(lstPrime.size() + 63) >>> 6];
+            for (int r : selected) {
+                int i = Arrays.binarySearch(rows, r);
+                fixed[i >>> 6] |= 1L << i;
+            }
+            MinimalCovers covers = new MinimalCovers(lstPrime, fixed, position, source != null ? source : coreCovers);
+            minimalCovers[f] = all_possible_not_just_one ? covers : covers.limit(1);
+            // back to sets and lists of prime implicants of lstPrime; covers
+            // still being listed are turned as they come, turning them all
+            // afterwards may take longer than listing them
+            ArrayList<long[]> M0 = new ArrayList<>();
+            ArrayList<ArrayList<Implicant>> lists = new ArrayList<>();
+            while (listed != null && M0.size() < keep && listed.hasNext()) {
+                long[] M = covers.toPrimes(listed.next());
+                M0.add(M);
+                lists.add(covers.toList(M));
+            }
+            if (M0.isEmpty()) {
+                int ct = Math.min(coreCovers.size(), keep);
+                for (int j = 0; j < ct; j++)
+                    M0.add(covers.toPrimes(coreCovers.get(j)));
+                int ms = all_possible_not_just_one ? M0.size() : 1;
+                for (int j = 0; j < ms; j++)
+                    lists.add(covers.toList(M0.get(j)));
+            }
+            if (QuineMcCluskey) {
+                steps.covers = M0;
+            }
+            // save solution as a list of prime implicants
+            sol.setPiSize(lists.size());
+            for (ArrayList<Implicant> lst : lists)
+                sol.addPI(lst);
+        }
+        metrics.coverNanos = System.nanoTime() - primeTime;
+        metrics.budgetExceeded = tracker.isExceeded();
+        sol.setMinimal(minimal);
+        // the budget may also have run out listing the cheapest covers
+        sol.setTruncated(all_possible_not_just_one && tracker.isExceeded());
+        return steps;
+    }
+
+    private static int[] toArray(ArrayList<Integer> lst) {
+        int[] a = new int[lst.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = lst.get(i);
+        return a;
+    }
+
+    private static int[] pack(ArrayList<Implicant> lst) {
+        int[] a = new int[lst.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = PrimeGenerator.pack(lst.get(i).getV(), lst.get(i).getM());
+        return a;
+    }
+
+
+    /*
+     * Petrick's Method: multiply out the product of sums of the chart core
+     * and keep the cheapest terms according to the optimization criterion.
+     * The terms are sets of positions in core; position gives the index in
+     * lstPrime (of primes prime implicants) used to log them in steps.
+     * Returns null if the product outgrew the budget of tracker.
+     */
+    private ArrayList<long[]> petrick(CoverTable table, int[] core, int[] coreOnes, long[] cost, int[] position, int primes, QMReport.Output steps,
+                                      SolveMetrics.Output metrics, SolveBudget.Tracker tracker) {
+        PetrickExpander M0 = new PetrickExpander(core.length);
+        int[] M1 = new int[core.length];
+        for (int k = 0; k < coreOnes.length; k++) {
+            int ct = 0;
+            for (int i = 0; i < core.length; i++) {
+                if (table.covers(core[i], coreOnes[k])) {
+                    M1[ct++] = i;
+                }
+            }
+            if (!M0.multiply(M1, ct, tracker)) {
+                metrics.petrickPeak = M0.getPeak();
+                return null;
+            }
+        }
+        metrics.petrickPeak = M0.getPeak();
+//                System.out.println("Expressões: " + M0.size());
+        if (steps != null) {
+            steps.expansion = new ArrayList<>(M0.size());
+            for (int j = 0; j < M0.size(); j++) {
+                long[] M = new long[(primes + 63) >>> 6];
+                for (int i = 0; i < core.length; i++) {
+                    if (M0.contains(j, i)) {
+                        M[position[i] >>> 6] |= 1L << position[i];
+                    }
+                }
+                steps.expansion.add(M);
+            }
+        }
+        // compute weights according to optimization criterion
+        long[] weight = new long[M0.size()];
+        long min = Long.MAX_VALUE;
+        for (int j = 0; j < M0.size(); j++) {
+            long cr = 0L;
+            for (int i = 0; i < core.length; i++) {
+                if (M0.contains(j, i)) {
+                    // prime i belongs to this solution
+                    cr += cost[core[i]];
+                }
+            }
+            weight[j] = cr;
+            if (cr < min) {
+                min = cr;
+            }
+        }
+        // keep only the optimum solutions
+        ArrayList<long[]> optimum = new ArrayList<>();
+        for (int j = 0; j < M0.size(); j++) {
+            if (weight[j] == min) {
+                optimum.add(M0.term(j));
+            }
+        }
+        return optimum;
+    }
+
+    /*
+     * One cover of the chart core picked greedily, with the same weights as
+     * Petrick's Method
+     */
+    private static ArrayList<long[]> greedy(CoverTable table, int[] core, int[] coreOnes, long[] cost) {
+        GreedyCover cover = new GreedyCover(core.length, coreOnes.length);
+        for (int i = 0; i < core.length; i++) {
+            cover.setCost(i, cost[core[i]]);
+            for (int k = 0; k < coreOnes.length; k++) {
+                if (table.covers(core[i], coreOnes[k])) {
+                    cover.set(i, k);
+                }
+            }
+        }
+        ArrayList<long[]> covers = new ArrayList<>(1);
+        covers.add(cover.solve());
+        return covers;
+    }
+
+    /*
+     * Weight of a prime implicant according to optimization criterion
+     */
+    private long primeCost(Implicant p) {
+        return optimize_number_of_terms_not_variables
+                ? (1L << Implicant.MAX_IN_VAR) + number_of_in_var - p.bitCount_m()
+                : (((long) (number_of_in_var - p.bitCount_m())) << Implicant.MAX_IN_VAR) + 1L;
+    }
+
+    /*
+     * Generetes an expression: essential prime implicants in blue and
+     * non-essentials in green. First eesential then non-essentials
+     */
+    void FormatExpressionHTML() {
+        for (int f = 0; f < number_of_out_var; f++) {
+            ArrayList<Implicant> epi = solutions.get(f).getEssentialsPI();
+            if (epi == null) {
+                //solution.append(Gui.resourceBundle.getString("SOLUTION TRIVIAL1"));
+                solution.append(out_var_names[f]);
+                //solution.append(Gui.resourceBundle.getString("SOLUTION TRIVIAL2"));
+                continue;
+            }
+            if (sum_of_products_not_product_of_sums) {
+                Collections.sort(epi);
+            } else {
+                Collections.sort(epi, (Implicant r1, Implicant r2) ->
+                {
+                    int r1b = r1.bitCount_m();
+                    int r2b = r2.bitCount_m();
+                    if (r1b != r2b)
+                        return r2b - r1b;
+                    r1b = r1.getM();
+                    r2b = r2.getM();
+                    if (r1b != r2b)
+                        return r1b - r2b;
+                    return r1.getV() - r2.getV();
+                });
+            }
+            StringBuilder solutioneq = new StringBuilder();
+            boolean fl = false;
+            ArrayList<ArrayList<Implicant>> primeI = solutions.get(f).getPrimeI();
+            solutioneq.append(out_var_names[f]);
+            solutioneq.append(" = ");
+            for (int j = 0; j < epi.size(); j++) {
+                if (sum_of_products_not_product_of_sums) {
+                    if (fl)
+                        solutioneq.append(" + ");
+                    solutioneq.append(epi.get(j).toExpressionProd(names));
+                } else {
+                    if (fl)
+                        solutioneq.append(" . ");
+                    if (((number_of_in_var - epi.get(j).bitCount_m()) > 1) &&
+                            ((epi.size() > 1) || (primeI != null))) {
+                        solutioneq.append('(');
+                        solutioneq.append(epi.get(j).toExpressionSum(names));
+                        solutioneq.append(')');
+                    } else {
+                        solutioneq.append(epi.get(j).toExpressionSum(names));
+                    }
+                }
+                fl = true;
+            }
+
+            int mx;
+            if (primeI == null) {
+                mx = 1;
+            } else {
+                mx = primeI.size();
+            }
+            for (int i = 0; i < mx; i++) {
+                solution.append(solutioneq);
+                boolean fll = fl;
+                if (primeI != null) {
+                    if (sum_of_products_not_product_of_sums) {
+                        Collections.sort(primeI.get(i));
+                    } else {
+                        Collections.sort(primeI.get(i), (Implicant r1, Implicant r2) ->
+                        {
+                            int r1b = r1.bitCount_m();
+                            int r2b = r2.bitCount_m();
+                            if (r1b != r2b)
+                                return r2b - r1b;
+                            r1b = r1.getM();
+                            r2b = r2.getM();
+                            if (r1b != r2b)
+                                return r1b - r2b;
+                            return r1.getV() - r2.getV();
+                        });
+                    }
+                    solution.append("</font><font color=green>");
+                    for (int j = 0; j < primeI.get(i).size(); j++) {
+                        if (sum_of_products_not_product_of_sums) {
+                            if (fll)
+                                solution.append(" + ");
+                            solution.append(primeI.get(i).get(j).toExpressionProd(names));
+                        } else {
+                            if (fll)
+                                solution.append(" . ");
+                            if (((number_of_in_var - primeI.get(i).get(j).bitCount_m()) > 1) &&
+                                    ((fl) || (primeI.get(i).size() > 1))) {
+                                solution.append('(');
+                                solution.append(primeI.get(i).get(j).toExpressionSum(names));
+                                solution.append(')');
+                            } else {
+                                solution.append(primeI.get(i).get(j).toExpressionSum(names));
+                            }
+                        }
+                        fll = true;
+                    }
+                    solution.append("</font><font color=blue>");
+                }
+                solution.append("<br>");
+            }
+        }
+    }
+
+    /*
+     * Generetes an expression sorted according to the number of terms, then
+     * MSB variable, then complemented or not: essential prime implicants in
+     * blue and non-essentials in green
+     */
+    void FormatExpressionHTMLSorted() {
+
+        for (int f = 0; f < number_of_out_var; f++) {
+            ArrayList<Implicant> epi = solutions.get(f).getEssentialsPI();
+            if (epi == null) {
+                solution.append(out_var_names[f]);
+                if (solutions.get(f).getPerfectTruth())
+                    solution.append(" = 1");
+                else
+                    solution.append("TRIVIAL SOLUTION");
+                continue;
+            }
+
+            ArrayList<ArrayList<Implicant>> primeI = solutions.get(f).getPrimeI();
+            int mx;
+            if (primeI == null) {
+                mx = 1;
+            } else {
+                mx = primeI.size();
+            }
+            for (int i = 0; i < mx; i++) {
+                ArrayList<Implicant> im = (ArrayList<Implicant>) epi.clone();
+                if (primeI != null) {
+                    im.addAll(primeI.get(i));
+                }
+                if (sum_of_products_not_product_of_sums) {
+                    Collections.sort(im);
+                } else {
+                    Collections.sort(im, (Implicant r1, Implicant r2) ->
+                    {
+                        int r1b = r1.bitCount_m();
+                        int r2b = r2.bitCount_m();
+                        if (r1b != r2b)
+                            return r2b - r1b;
+                        r1b = r1.getM();
+                        r2b = r2.getM();
+                        if (r1b != r2b)
+                            return r1b - r2b;
+                        return r1.getV() - r2.getV();
+                    });
+                }
+                solution.append(out_var_names[f]);
+                solution.append(" = ");
+                boolean fl = false;
+                boolean le = true;
+                for (int j = 0; j < im.size(); j++) {
+                    if (epi.contains(im.get(j))) {
+                        if (!le) {
+                            //solution.append("</font><font color=blue>");
+                            le = true;
+                        }
+                    } else {
+                        if (le) {
+                            //solution.append("</font><font color=green>");
+                            le = false;
+                        }
+                    }
+                    if (sum_of_products_not_product_of_sums) {
+                        if (fl)
+                            solution.append(" + ");
+                        solution.append(im.get(j).toExpressionProd(names));
+                    } else {
+                        if (fl)
+                            solution.append(" \u0067 ");
+                        if (((number_of_in_var - im.get(j).bitCount_m()) > 1) && (im.size() > 1)) {
+                            solution.append('(');
+                            solution.append(im.get(j).toExpressionSum(names));
+                            solution.append(')');
+                        } else {
+                            solution.append(im.get(j).toExpressionSum(names));
+                        }
+                    }
+                    fl = true;
+                }
+                /*if (!le) {
+                    //solution.append("</font><font color=blue>");
+                }*/
+                solution.append("\n");
+            }
+        }
+    }
+
+
+    /*
+     * Truth table with the coverage of every solution, see
+     * TruthTableCoverage
+     */
+    public TruthTableCoverage getTruthTableCoverage() {
+        if (truthTableCoverage == null)
+            truthTableCoverage = new TruthTableCoverage(values, solutions, sum_of_products_not_product_of_sums);
+        return truthTableCoverage;
+    }
+
+    public String getTruthTableHTML() {
+        TruthTableCoverage coverage = getTruthTableCoverage();
+        StringBuilder temp = new StringBuilder();
+
+        temp.append("<table cellspacing=\"1\" cellpadding=\"5\" margin-bottom=\"20px\" margin-top=\"20px\" border=\"0\" border-collapse=\"collapse\" align=\"center\" font color=\"blue\" bgcolor=\"blue\"><tbody><tr><th bgcolor=\"#FAF0E6\" align=\"center\">#</th>");
+
+        for (int i = 0; i < number_of_in_var; i++) {
+            temp.append("<th bgcolor=\"#FAF0E6\" align=\"center\">");
+            temp.append(in_var_names[i]);
+            temp.append("</th>");
+        }
+
+        for (int f = 0; f < number_of_out_var; f++) {
+            ArrayList<ArrayList<Implicant>> primeI = solutions.get(f).getPrimeI();
+            if (primeI == null) {
+                temp.append("<th bgcolor=\"#FAF0E6\" align=\"center\">");
+                // temp.append(out_var_names[f]); temp.append("</th>");
+            } else {
+                temp.append("<th bgcolor=\"#FAF0E6\" align=\"center\" colspan=\"");
+                temp.append(primeI.size());
+                temp.append("\">");
+            }
+            temp.append(out_var_names[f]);
+            temp.append("</th>");
+        }
+        temp.append("</tr>");
+        for (int x = 0; x < (1 << number_of_in_var); x++) {
+            temp.append("<tr><td bgcolor=\"#FAF0E6\" align=\"right\">");
+            temp.append(x);
+            temp.append("</td>");
+            for (int i = 0; i < number_of_in_var; i++) {
+                temp.append("<td bgcolor=\"#FFFFFF\" align=\"center\">");
+                if ((x & (1 << number_of_in_var - i - 1)) > 0)
+                    temp.append('1');
+                else
+                    temp.append('0');
+                temp.append("</td>");
+            }
+            for (int f = 0; f < number_of_out_var; f++) {
+                if (!coverage.isSolved(f)) {
+                    temp.append("<td>&nbsp;</td>");
+                    continue;
+                }
+                for (int i = 0; i < coverage.getSolutionCount(f); i++) {
+                    if (coverage.evaluate(x, f, i)) {
+                        if (values.isOne(x, f)) {
+                            temp.append("<td bgcolor=\"#FFFFFF\" align=\"center\">1</td>");
+                        } else {
+                            temp.append("<td bgcolor=\"#FAECF0\" align=\"center\"><font color=red>1</font></td>");
+                        }
+                    } else {
+                        if (values.isZero(x, f)) {
+                            temp.append("<td bgcolor=\"#FFFFFF\" align=\"center\">0</td>");
+                        } else {
+                            temp.append("<td bgcolor=\"#FAECF0\" align=\"center\"><font color=red>0</font></td>");
+                        }
+                    }
+                }
+            }
+            temp.append("</tr>");
+        }
+        temp.append("</tbody></table></font><br>");
+
+        return temp.toString();
+    }
+
+    /*
+     * Create Karnaugh Map using HTML table
+     *
+     * Converts the number of row and column to cell number in a Karnaugh Map.
+     * Cell numbering correspond to latex package karnaugh.
+     */
+    public static int mat2bin(int i, int j) {
+        int gc = (i >>> 1) ^ i; // Converting to Gray code
+        int res = 0;
+        int pos = 1;
+        while (gc > 0) {
+            res |= (gc & 1) << pos;
+            gc >>>= 1;
+            pos += 2;
+        }
+        pos = 0;
+        gc = (j >>> 1) ^ j; // Converting to Gray code
+        while (gc > 0) {
+            res |= (gc & 1) << pos;
+            gc >>>= 1;
+            pos += 2;
+        }
+        return res;
+    }
+
+    /*
+     * Cells of the Karnaugh Map of this solver and their minterms
+     */
+    public KarnaughLayout getKarnaughLayout() {
+        return KarnaughLayout.of(number_of_in_var, KarnaughInOrder);
+    }
+
+    /*
+     * Blend the background color for cells covered by more them one prime
+     * implicant: the mean of each ARGB channel, rounded down (same as
+     * ColorUtils.blendARGB(color, color2, 0.5f) of androidx)
+     */
+    public static int blend(int color, int color2) {
+        return ((color >>> 1) & 0x7f7f7f7f) + ((color2 >>> 1) & 0x7f7f7f7f) + (color & color2 & 0x01010101);
+    }
+
+    /*
+     * Format a colour code in HTML
+     */
+    public static String formatHTML(int color) {
+        return "#" + String.format("%08x", color);
+    }
+
+    public void FormatKarnaughHTML(int f, ArrayList<Implicant> im) {
+
+        if (colorMap == null)
+            colorMap = new ColorMap(number_of_in_var);
+        colorMap.fill(outputColorMap(f), im);
+        setGroups(f, im);
+
+        solution.delete(0, solution.length());
+        coloredSolution.clear();
+
+        // Begin formatting output according to grouping color
+        coloredSolution.append(out_var_names[f]);
+        coloredSolution.append(" = ");
+        boolean fl = false;
+        for (int j = 0; j < im.size(); j++) {
+            int color = ColorMap.color(j);
+            if (sum_of_products_not_product_of_sums) {
+                if (fl)
+                    coloredSolution.append(" + ");
+                coloredSolution.append(im.get(j).toExpressionProd(names), color);
+            } else {
+                if (fl)
+                    coloredSolution.append(" . ");
+                if (((number_of_in_var - im.get(j).bitCount_m()) > 1) && (im.size() > 1)) {
+                    StringBuilder term = im.get(j).toExpressionSum(names);
+                    term.insert(0, '(').append(')');
+                    coloredSolution.append(term, color);
+                } else {
+                    coloredSolution.append(im.get(j).toExpressionSum(names), color);
+                }
+            }
+            fl = true;
+        }
+
+        // Log.d("TAG", "FORMATTED:\t"+solution.toString());
+
+    }
+
+    /*
+     * Color map of output f, the same array from one solution (or one
+     * Format()) to the next
+     */
+    private int[] outputColorMap(int f) {
+        while (colorMaps.size() <= f)
+            colorMaps.add(new int[1 << number_of_in_var]);
+        return colorMaps.get(f);
+    }
+
+    private void setGroups(int f, ArrayList<Implicant> im) {
+        if (groups.size() > f)
+            groups.set(f, im);
+        else
+            groups.add(im);
+    }
+
+    void FormatKarnaughHTML() {
+        groups.clear();
+        coloredSolution.clear();
+        for (int f = 0; f < number_of_out_var; f++) {
+            ArrayList<Implicant> epi = solutions.get(f).getEssentialsPI();
+            if (epi == null) {
+                if (solutions.get(f).getPerfectTruth()) {
+                    solution.delete(0, solution.length()); // clear every thing first
+                    coloredSolution.clear();
+                    coloredSolution.append(out_var_names[f]);
+                    coloredSolution.append(" = 1 ", ColorMap.color(2));
+                    ColorMap.fill(outputColorMap(f), ColorMap.color(2));
+                    ArrayList<Implicant> all = new ArrayList<>();
+                    all.add(new Implicant(0, (1 << number_of_in_var) - 1));
+                    setGroups(f, all);
+                } else {
+                    coloredSolution.append(out_var_names[f]).append("SOLUTION NON-TRIVIAL");
+                    ColorMap.fill(outputColorMap(f), ColorMap.TRANSPARENT); // nothing to color
+                    setGroups(f, new ArrayList<>());
+                }
+                continue;
+            }
+            ArrayList<ArrayList<Implicant>> primeI = solutions.get(f).getPrimeI();
+            int mx;
+            if (primeI == null) {
+                mx = 1;
+            } else {
+                mx = primeI.size();
+            }
+            for (int i = 0; i < mx; i++) {
+                ArrayList<Implicant> im = (ArrayList<Implicant>) epi.clone();
+                if (primeI != null) {
+                    im.addAll(primeI.get(i));
+                }
+                if (sum_of_products_not_product_of_sums) {
+                    Collections.sort(im);
+                } else {
+                    Collections.sort(im, (Implicant r1, Implicant r2) ->
+                    {
+                        int r1b = r1.bitCount_m();
+                        int r2b = r2.bitCount_m();
+                        if (r1b != r2b)
+                            return r2b - r1b;
+                        r1b = r1.getM();
+                        r2b = r2.getM();
+                        if (r1b != r2b)
+                            return r1b - r2b;
+                        return r1.getV() - r2.getV();
+                    });
+                }
+                Solver.this.FormatKarnaughHTML(f, im);
+            }
+        }
+        karnaughFormatted = true;
+    }
+
+    /*
+     * Formats the solution of the last Solve(); run() does both, called
+     * apart so each can be timed on its own
+     */
+    public void Format() {
+        long startTime = System.nanoTime();
+        solution.delete(0, solution.length()); // formatting again starts over
+        if (expressionSorted) {
+            FormatExpressionHTMLSorted();
+        }
+
+        FormatKarnaughHTML();
+        if (metrics != null) {
+            metrics.formatNanos = System.nanoTime() - startTime;
+            if (listener != null)
+                listener.onFormat(metrics);
+        }
+    }
+
+    public ArrayList<Implicant> getSolutionImplicant() {
+        return solutions.get(0).getEssentialsPI();
+    }
+
+    @Override
+    public void run() {
+        failed = false;
+        try {
+            Solve();
+            Format();
+        } catch (OutOfMemoryError e) {
+            failed = true;
+            e.printStackTrace();
+        }
+
+    }
+
+    /*
+     * True if the last run() ran out of memory: its solutions and the
+     * formatting are partial or left from an earlier solve
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /*
+     *getSolution return the solution.
+     */
+    public String getSolution() {
+        if (!karnaughFormatted)
+            return solution.toString();
+        return solution + coloredSolution.toHtml() + "</font><br>";
+    }
+
+    /*
+     * Solution shown with the Karnaugh Map, colored like the groups, without
+     * the HTML round trip of getSolution()
+     */
+    public ColoredText getColoredSolution() {
+        return coloredSolution;
+    }
+
+    /*
+     * Background color of the Karnaugh Map cells, one map per output for
+     * the solution shown (the last one formatted), each indexed by minterm
+     */
+    public ArrayList<int[]> getColorMaps() {
+        return colorMaps;
+    }
+
+    /*
+     * Groups of each color map, group j colored ColorMap.color(j)
+     */
+    public ArrayList<ArrayList<Implicant>> getGroups() {
+        return groups;
+    }
+}
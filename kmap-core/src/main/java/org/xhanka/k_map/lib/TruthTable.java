@@ -0,0 +1,160 @@
+/*
+ * class TruthTable holds the outputs of a truth table as two bitsets per
+ * output, ones and don't cares, one bit per minterm. A minterm in neither
+ * is a zero.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.Arrays;
+
+public final class TruthTable {
+
+    private final int number_of_in_var;
+    private final int number_of_out_var;
+    private final int words;       // longs per output
+    private final long[][] ones;
+    private final long[][] dontCare;
+
+    public TruthTable(int number_of_in_var, int number_of_out_var) {
+        this.number_of_in_var = number_of_in_var;
+        this.number_of_out_var = number_of_out_var;
+        words = ((1 << number_of_in_var) + 63) >>> 6;
+        ones = new long[number_of_out_var][words];
+        dontCare = new long[number_of_out_var][words];
+    }
+
+    /*
+     * Copy of values, one char[] per minterm with '0', '1' or '-'
+     */
+    public static TruthTable fromValues(char[][] values, int number_of_in_var, int number_of_out_var) {
+        TruthTable table = new TruthTable(number_of_in_var, number_of_out_var);
+        for (int i = 0; i < (1 << number_of_in_var); i++)
+            for (int f = 0; f < number_of_out_var; f++)
+                table.set(i, f, values[i][f]);
+        return table;
+    }
+
+    public TruthTable copy() {
+        TruthTable table = new TruthTable(number_of_in_var, number_of_out_var);
+        for (int f = 0; f < number_of_out_var; f++) {
+            System.arraycopy(ones[f], 0, table.ones[f], 0, words);
+            System.arraycopy(dontCare[f], 0, table.dontCare[f], 0, words);
+        }
+        return table;
+    }
+
+    public int getNumberOfInVar() {
+        return number_of_in_var;
+    }
+
+    public int getNumberOfOutVar() {
+        return number_of_out_var;
+    }
+
+    /*
+     * Longs in the bitsets of an output, the bits past the last minterm
+     * are always zero
+     */
+    public int getWords() {
+        return words;
+    }
+
+    /*
+     * value is '1', '-' (Solver.DONT_CARE_CHAR) or anything else for zero
+     */
+    public void set(int minterm, int output, char value) {
+        long bit = 1L << minterm;
+        int w = minterm >>> 6;
+        if (value == '1') {
+            ones[output][w] |= bit;
+            dontCare[output][w] &= ~bit;
+        } else if (value == Solver.DONT_CARE_CHAR) {
+            ones[output][w] &= ~bit;
+            dontCare[output][w] |= bit;
+        } else {
+            ones[output][w] &= ~bit;
+            dontCare[output][w] &= ~bit;
+        }
+    }
+
+    public char get(int minterm, int output) {
+        if (isOne(minterm, output))
+            return '1';
+        if (isDontCare(minterm, output))
+            return Solver.DONT_CARE_CHAR;
+        return '0';
+    }
+
+    public boolean isOne(int minterm, int output) {
+        return (ones[output][minterm >>> 6] & (1L << minterm)) != 0L;
+    }
+
+    public boolean isDontCare(int minterm, int output) {
+        return (dontCare[output][minterm >>> 6] & (1L << minterm)) != 0L;
+    }
+
+    public boolean isZero(int minterm, int output) {
+        return ((ones[output][minterm >>> 6] | dontCare[output][minterm >>> 6]) & (1L << minterm)) == 0L;
+    }
+
+    /*
+     * Sets every minterm of output to value
+     */
+    public void fill(int output, char value) {
+        Arrays.fill(ones[output], 0L);
+        Arrays.fill(dontCare[output], 0L);
+        if (value == '1')
+            fillWords(ones[output]);
+        else if (value == Solver.DONT_CARE_CHAR)
+            fillWords(dontCare[output]);
+    }
+
+    private void fillWords(long[] set) {
+        Arrays.fill(set, -1L);
+        int mx = 1 << number_of_in_var;
+        if ((mx & 63) != 0)
+            set[words - 1] = (1L << mx) - 1;
+    }
+
+    /*
+     * Copy of the ones (or don't cares) of output into dst at offset
+     */
+    public void getOnes(int output, long[] dst, int offset) {
+        System.arraycopy(ones[output], 0, dst, offset, words);
+    }
+
+    public void getDontCares(int output, long[] dst, int offset) {
+        System.arraycopy(dontCare[output], 0, dst, offset, words);
+    }
+
+    public int countOnes(int output) {
+        return count(ones[output]);
+    }
+
+    public int countDontCares(int output) {
+        return count(dontCare[output]);
+    }
+
+    private static int count(long[] set) {
+        int ct = 0;
+        for (long w : set)
+            ct += Long.bitCount(w);
+        return ct;
+    }
+
+    /*
+     * Word w of the minterms of output equal to value (to '0' if value is
+     * neither '1' nor '-'), used to walk them bit by bit
+     */
+    public long word(int output, int w, char value) {
+        if (value == '1')
+            return ones[output][w];
+        if (value == Solver.DONT_CARE_CHAR)
+            return dontCare[output][w];
+        long zeros = ~(ones[output][w] | dontCare[output][w]);
+        int mx = 1 << number_of_in_var;
+        if (w == words - 1 && (mx & 63) != 0)
+            zeros &= (1L << mx) - 1;
+        return zeros;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * class TruthTableCoverage is the truth table of a solve with, for each
+ * output and each alternative solution, the minterms the solution covers
+ * as a bitset. The bitsets are filled once by walking every implicant of
+ * the solution, after that a row of the table is a few bit tests and can
+ * be evaluated only when it is shown.
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+
+public final class TruthTableCoverage {
+
+    private final TruthTable values;
+    private final boolean sum_of_products_not_product_of_sums;
+    private final long[][][] covered; // [output][solution], null if the output has no solution
+
+    TruthTableCoverage(TruthTable values, ArrayList<Solutions> solutions, boolean sum_of_products_not_product_of_sums) {
+        this.values = values;
+        this.sum_of_products_not_product_of_sums = sum_of_products_not_product_of_sums;
+        int words = values.getWords();
+        covered = new long[values.getNumberOfOutVar()][][];
+        for (int f = 0; f < covered.length; f++) {
+            ArrayList<Implicant> epi = solutions.get(f).getEssentialsPI();
+            if (epi == null)
+                continue;
+            long[] essentials = new long[words];
+            for (Implicant im : epi)
+                cover(essentials, im);
+
+            ArrayList<ArrayList<Implicant>> primeI = solutions.get(f).getPrimeI();
+            if (primeI == null) {
+                covered[f] = new long[][]{essentials};
+                continue;
+            }
+            covered[f] = new long[primeI.size()][];
+            for (int i = 0; i < primeI.size(); i++) {
+                long[] set = essentials.clone();
+                for (Implicant im : primeI.get(i))
+                    cover(set, im);
+                covered[f][i] = set;
+            }
+        }
+    }
+
+    /*
+     * Sets the bit of every minterm of the implicant, its value with each
+     * subset of its mask
+     */
+    private static void cover(long[] set, Implicant im) {
+        int v = im.getV() & ~im.getM();
+        int m = im.getM();
+        int s = m;
+        while (true) {
+            int x = v | s;
+            set[x >>> 6] |= 1L << x;
+            if (s == 0)
+                break;
+            s = (s - 1) & m;
+        }
+    }
+
+    public int getNumberOfInVar() {
+        return values.getNumberOfInVar();
+    }
+
+    public int getNumberOfOutVar() {
+        return values.getNumberOfOutVar();
+    }
+
+    public int getRowCount() {
+        return 1 << values.getNumberOfInVar();
+    }
+
+    public boolean isSolved(int output) {
+        return covered[output] != null;
+    }
+
+    /*
+     * Alternative solutions of output, 0 when it was not solved
+     */
+    public int getSolutionCount(int output) {
+        return covered[output] == null ? 0 : covered[output].length;
+    }
+
+    /*
+     * Value of output given by the truth table
+     */
+    public char getValue(int minterm, int output) {
+        return values.get(minterm, output);
+    }
+
+    /*
+     * Value of output given by solution, complemented for product of sums
+     */
+    public boolean evaluate(int minterm, int output, int solution) {
+        boolean fl = (covered[output][solution][minterm >>> 6] & (1L << minterm)) != 0L;
+        return fl == sum_of_products_not_product_of_sums;
+    }
+
+    /*
+     * Whether solution gives a value the truth table does not allow, a
+     * don't care allows both
+     */
+    public boolean isWrong(int minterm, int output, int solution) {
+        return evaluate(minterm, output, solution)
+                ? values.isZero(minterm, output)
+                : values.isOne(minterm, output);
+    }
+}
@@ -0,0 +1,64 @@
+package org.xhanka.k_map.lib
+
+/*
+ * Names of the input variables used to write implicants as expressions,
+ * plain and complemented, in text and in LaTeX. Built once per solve and
+ * never changed, so any number of solves can format at the same time.
+ */
+class VariableNames(val number_of_in_var: Int, in_var_names: Array<String>) {
+    private val invar_e = arrayOfNulls<String>(number_of_in_var)
+    private val invar_ec = arrayOfNulls<String>(number_of_in_var)
+    private val invar_l = arrayOfNulls<String>(number_of_in_var)
+    private val invar_lc = arrayOfNulls<String>(number_of_in_var)
+
+    init {
+        for (i in 0 until number_of_in_var) {
+            val tmp = in_var_names[i].trim { it <= ' ' }
+            invar_e[i] = tmp
+
+            val vars = tmp.split("_".toRegex()).toTypedArray()
+            val tmpc = StringBuilder()
+            for (element in vars[0]) {
+                tmpc.append(element)
+                tmpc.append("'")
+            }
+            for (j in 1 until vars.size) {
+                tmpc.append("_")
+                tmpc.append(vars[j])
+            }
+            invar_ec[i] = tmpc.toString()
+
+            val tmpl = StringBuilder()
+            if (vars[0].length > 1) {
+                tmpl.append("\\overline{")
+                tmpl.append(vars[0])
+                tmpl.append('}')
+            } else {
+                tmpl.append("\\bar{")
+                tmpl.append(vars[0])
+                tmpl.append('}')
+            }
+            val tmpf = StringBuilder()
+            for (j in 1 until vars.size) {
+                tmpf.append("_{")
+                tmpf.append(vars[j])
+                tmpf.append("}")
+            }
+            tmpl.append(tmpf)
+            tmpf.insert(0, vars[0])
+            invar_l[i] = tmpf.toString()
+            invar_lc[i] = tmpl.toString()
+        }
+    }
+
+    /*
+     * Variable i, the most significant one is 0
+     */
+    fun name(i: Int): String = invar_e[i]!!
+
+    fun complemented(i: Int): String = invar_ec[i]!!
+
+    fun latexName(i: Int): String = invar_l[i]!!
+
+    fun latexComplemented(i: Int): String = invar_lc[i]!!
+}
@@ -0,0 +1,170 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BranchAndBoundCoverTest {
+
+    private static BranchAndBoundCover search(long[] primeCols, int columns, long[] cost) {
+        BranchAndBoundCover search = new BranchAndBoundCover(primeCols.length, columns);
+        for (int p = 0; p < primeCols.length; p++) {
+            search.setCost(p, cost[p]);
+            for (int c = 0; c < columns; c++)
+                if ((primeCols[p] & (1L << c)) != 0L)
+                    search.set(p, c);
+        }
+        return search;
+    }
+
+    private static TreeSet<Long> set(Iterator<long[]> covers) {
+        TreeSet<Long> set = new TreeSet<>();
+        while (covers.hasNext())
+            assertTrue("cover found twice", set.add(covers.next()[0]));
+        return set;
+    }
+
+    @Test
+    public void findsTheCheapestCost() {
+        Random r = new Random(5);
+        for (int it = 0; it < 300; it++) {
+            int primes = 2 + r.nextInt(17);
+            int columns = 1 + r.nextInt(40);
+            long[] chart = TestFunctions.chart(primes, columns, 0.05 + 0.3 * r.nextDouble(), r);
+            long[] cost = TestFunctions.costs(primes, r);
+            List<Long> cheapest = TestFunctions.cheapest(chart, columns, cost);
+            long min = TestFunctions.cost(cheapest.get(0), cost);
+
+            BranchAndBoundCover search = search(chart, columns, cost);
+            ArrayList<long[]> one = search.solve(false);
+            assertTrue(search.isComplete());
+            assertEquals(min, search.getCost());
+            assertEquals(1, one.size());
+            assertTrue(cheapest.contains(one.get(0)[0]));
+        }
+    }
+
+    @Test
+    public void findsEveryCheapestCover() {
+        Random r = new Random(6);
+        for (int it = 0; it < 300; it++) {
+            int primes = 2 + r.nextInt(15);
+            int columns = 1 + r.nextInt(30);
+            long[] chart = TestFunctions.chart(primes, columns, 0.1 + 0.3 * r.nextDouble(), r);
+            long[] cost = TestFunctions.costs(primes, r);
+            TreeSet<Long> expected = new TreeSet<>(TestFunctions.cheapest(chart, columns, cost));
+
+            BranchAndBoundCover search = search(chart, columns, cost);
+            assertEquals(expected, set(search.solve(true).iterator()));
+            assertEquals(expected, set(search.covers(search.getCost())));
+        }
+    }
+
+    @Test
+    public void coversMatchPetrick() {
+        Random r = new Random(7);
+        for (int it = 0; it < 100; it++) {
+            int primes = 16 + r.nextInt(15);
+            int columns = 10 + r.nextInt(15);
+            long[] chart = TestFunctions.chart(primes, columns, 0.1 + 0.1 * r.nextDouble(), r);
+            long[] cost = TestFunctions.costs(primes, r);
+
+            BranchAndBoundCover search = search(chart, columns, cost);
+            search.solve(false);
+            TreeSet<Long> petrick = PetrickExpanderTest.cheapest(PetrickExpanderTest.expand(chart, columns), cost);
+            assertEquals(petrick, set(search.covers(search.getCost())));
+        }
+    }
+
+    @Test
+    public void uncoverableChartHasNoCover() {
+        BranchAndBoundCover search = new BranchAndBoundCover(2, 3);
+        search.setCost(0, 1);
+        search.setCost(1, 1);
+        search.set(0, 0);
+        search.set(1, 1);
+        assertTrue(search.solve(true).isEmpty());
+    }
+
+    @Test
+    public void solverReachesTheCheapestCost() {
+        Random r = new Random(8);
+        for (int it = 0; it < 100; it++) {
+            int n = 3 + r.nextInt(2);
+            TruthTable t = TestFunctions.random(n, 1, 0.3 + 0.4 * r.nextDouble(), 0.2 * r.nextDouble(), r);
+            // every prime implicant, with the don't cares
+            int[] minterms = new int[1 << n];
+            int ct = 0;
+            for (int x = 0; x < 1 << n; x++)
+                if (!t.isZero(x, 0))
+                    minterms[ct++] = x;
+            PrimeGenerator generator = new PrimeGenerator(n);
+            generator.generate(minterms, ct);
+            ArrayList<Implicant> primes = generator.getPrimes();
+            if (primes.size() > 20)
+                continue;
+            long[] chart = new long[primes.size()];
+            long[] cost = new long[primes.size()];
+            int columns = 0;
+            for (int x = 0; x < 1 << n; x++) {
+                if (!t.isOne(x, 0))
+                    continue;
+                for (int p = 0; p < primes.size(); p++)
+                    if ((x & ~primes.get(p).getM()) == (primes.get(p).getV() & ~primes.get(p).getM()))
+                        chart[p] |= 1L << columns;
+                columns++;
+            }
+            for (int p = 0; p < primes.size(); p++)
+                cost[p] = TestFunctions.cost(n, primes.subList(p, p + 1), true);
+            long min = columns == 0 ? 0L : TestFunctions.cost(TestFunctions.cheapest(chart, columns, cost).get(0), cost);
+
+            for (CoverEngine engine : new CoverEngine[]{CoverEngine.PETRICK, CoverEngine.BRANCH_AND_BOUND}) {
+                Solver solver = TestFunctions.solver(t, false);
+                solver.setCoverEngine(engine);
+                solver.run();
+                if (solver.solutions.get(0).getEssentialsPI() == null)
+                    continue; // constant, no prime implicant chart
+                List<Implicant> cover = TestFunctions.cover(solver, 0, 0);
+                TestFunctions.assertCovers(t, 0, cover);
+                assertEquals(engine.name(), min, TestFunctions.cost(n, cover, true));
+            }
+        }
+    }
+
+    /*
+     * Each solution of output f as the text of its prime implicants
+     */
+    private static TreeSet<String> solutions(Solver solver, int f) {
+        TreeSet<String> set = new TreeSet<>();
+        ArrayList<ArrayList<Implicant>> primeI = solver.solutions.get(f).getPrimeI();
+        for (int j = 0; primeI != null && j < primeI.size(); j++) {
+            TreeSet<String> cover = new TreeSet<>();
+            for (Implicant p : primeI.get(j))
+                cover.add(p.getV() + "/" + p.getM());
+            assertTrue("solution found twice", set.add(cover.toString()));
+        }
+        return set;
+    }
+
+    @Test
+    public void solverFindsTheSameSolutionsAsPetrick() {
+        Random r = new Random(9);
+        for (int it = 0; it < 60; it++) {
+            TruthTable t = TestFunctions.random(4 + r.nextInt(2), 2, 0.3 + 0.4 * r.nextDouble(), 0.2 * r.nextDouble(), r);
+            Solver petrick = TestFunctions.solver(t, true);
+            petrick.run();
+            Solver search = TestFunctions.solver(t, true);
+            search.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+            search.run();
+            for (int f = 0; f < 2; f++)
+                assertEquals(solutions(petrick, f), solutions(search, f));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoverTableTest {
+
+    private ArrayList<Implicant> primes;
+    private ArrayList<Integer> ones;
+    private long[] cost;
+
+    /*
+     * The chart of output 0 of t, false if it has too many prime
+     * implicants to try every set of them
+     */
+    private boolean chart(TruthTable t, boolean terms) {
+        int n = t.getNumberOfInVar();
+        int[] minterms = new int[1 << n];
+        int ct = 0;
+        ones = new ArrayList<>();
+        for (int x = 0; x < 1 << n; x++) {
+            if (!t.isZero(x, 0))
+                minterms[ct++] = x;
+            if (t.isOne(x, 0))
+                ones.add(x);
+        }
+        PrimeGenerator generator = new PrimeGenerator(n);
+        generator.generate(minterms, ct);
+        primes = generator.getPrimes();
+        cost = new long[primes.size()];
+        for (int p = 0; p < primes.size(); p++)
+            cost[p] = TestFunctions.cost(n, primes.subList(p, p + 1), terms);
+        return primes.size() <= 20 && !ones.isEmpty();
+    }
+
+    private CoverTable table(TruthTable t) {
+        CoverTable table = new CoverTable(t.getNumberOfInVar(), primes, ones);
+        table.setCost(cost);
+        return table;
+    }
+
+    /*
+     * Columns of each given row, as far as they are among columns
+     */
+    private static long[] rowCols(CoverTable table, int[] rows, int[] columns) {
+        long[] primeCols = new long[rows.length];
+        for (int i = 0; i < rows.length; i++)
+            for (int k = 0; k < columns.length; k++)
+                if (table.covers(rows[i], columns[k]))
+                    primeCols[i] |= 1L << k;
+        return primeCols;
+    }
+
+    private static long set(int[] rows) {
+        long s = 0L;
+        for (int r : rows)
+            s |= 1L << r;
+        return s;
+    }
+
+    /*
+     * Cheapest covers of the whole chart, by trying every set
+     */
+    private TreeSet<Long> cheapest(TruthTable t) {
+        CoverTable table = table(t);
+        return new TreeSet<>(TestFunctions.cheapest(rowCols(table, table.rows(), table.columns()), ones.size(), cost));
+    }
+
+    /*
+     * The cheapest covers of what is left of the chart, with fixed
+     */
+    private TreeSet<Long> lift(CoverTable table, long fixed) {
+        int[] rows = table.rows();
+        int[] columns = table.columns();
+        TreeSet<Long> covers = new TreeSet<>();
+        if (columns.length == 0) {
+            covers.add(fixed);
+            return covers;
+        }
+        long[] coreCost = new long[rows.length];
+        for (int i = 0; i < rows.length; i++)
+            coreCost[i] = cost[rows[i]];
+        for (long k : TestFunctions.cheapest(rowCols(table, rows, columns), columns.length, coreCost)) {
+            long s = fixed;
+            for (int i = 0; i < rows.length; i++)
+                if ((k & (1L << i)) != 0L)
+                    s |= 1L << rows[i];
+            covers.add(s);
+        }
+        return covers;
+    }
+
+    private static TruthTable table(Random r) {
+        return TestFunctions.random(3 + r.nextInt(3), 1, 0.3 + 0.5 * r.nextDouble(), 0.3 * r.nextDouble(), r);
+    }
+
+    @Test
+    public void essentialsAreInEveryCheapestCover() {
+        Random r = new Random(10);
+        for (int it = 0; it < 300; it++) {
+            TruthTable t = table(r);
+            if (!chart(t, true))
+                continue;
+            CoverTable table = table(t);
+            long essentials = set(table.extractEssentials());
+            for (long cover : cheapest(t))
+                assertEquals(essentials, cover & essentials);
+            assertEquals(lift(table(t), 0L), lift(table, essentials));
+        }
+    }
+
+    @Test
+    public void reduceKeepsEveryCheapestCover() {
+        Random r = new Random(11);
+        for (int it = 0; it < 300; it++) {
+            TruthTable t = table(r);
+            boolean terms = r.nextBoolean();
+            if (!chart(t, terms))
+                continue;
+            CoverTable table = table(t);
+            long fixed = set(table.extractEssentials());
+            fixed |= set(table.reduce(true));
+            assertEquals(cheapest(t), lift(table, fixed));
+        }
+    }
+
+    @Test
+    public void reduceForOneKeepsACheapestCover() {
+        Random r = new Random(12);
+        for (int it = 0; it < 300; it++) {
+            TruthTable t = table(r);
+            boolean terms = r.nextBoolean();
+            if (!chart(t, terms))
+                continue;
+            CoverTable table = table(t);
+            long fixed = set(table.extractEssentials());
+            fixed |= set(table.reduce(false));
+            TreeSet<Long> kept = lift(table, fixed);
+            assertFalse(kept.isEmpty());
+            assertTrue(cheapest(t).containsAll(kept));
+        }
+    }
+
+    @Test
+    public void cyclicCoreIsNotReduced() {
+        TruthTable t = TestFunctions.cyclic(3);
+        assertTrue(chart(t, true));
+        CoverTable table = table(t);
+        assertEquals(0, table.extractEssentials().length);
+        assertEquals(0, table.reduce(true).length);
+        assertEquals(primes.size(), table.rows().length);
+        assertEquals(ones.size(), table.columns().length);
+        // two covers of three prime implicants
+        assertEquals(2, lift(table, 0L).size());
+    }
+}
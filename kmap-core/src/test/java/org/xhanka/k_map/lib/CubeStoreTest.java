@@ -0,0 +1,76 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CubeStoreTest {
+
+    private static void assertStores(boolean offHeap) {
+        // chunks of the smallest size, the chunk array grows many times
+        CubeStore store = new CubeStore(1, offHeap);
+        assertEquals(offHeap, store.isOffHeap());
+        Random r = new Random(1);
+        int[] cubes = new int[100_000];
+        for (int i = 0; i < cubes.length; i++) {
+            // negative too, like the cubes of the highest minterms
+            cubes[i] = r.nextInt();
+            store.add(cubes[i]);
+            assertTrue(store.capacity() >= store.size());
+        }
+        assertEquals(cubes.length, store.size());
+        assertTrue(store.capacity() - store.size() < 256);
+        for (int i = 0; i < cubes.length; i++)
+            assertEquals(cubes[i], store.get(i));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.capacity());
+        store.addAll(cubes, 10, 20);
+        assertEquals(10, store.size());
+        for (int i = 0; i < 10; i++)
+            assertEquals(cubes[10 + i], store.get(i));
+    }
+
+    @Test
+    public void heapStoresLikeAnArray() {
+        assertStores(false);
+    }
+
+    @Test
+    public void offHeapStoresLikeAnArray() {
+        assertStores(true);
+    }
+
+    @Test
+    public void offHeapGeneratesLikeHeap() {
+        Random r = new Random(2);
+        boolean grown = false;
+        for (int n = 2; n <= Implicant.MAX_IN_VAR; n++) {
+            // dense up to 12 variables, sparse past that
+            double density = n <= 12 ? 0.3 + 0.4 * r.nextDouble() : 0.02;
+            TruthTable t = TestFunctions.random(n, 1, density, 0.1, r);
+            int[] minterms = new int[1 << n];
+            int ct = 0;
+            for (int x = 0; x < 1 << n; x++)
+                if (!t.isZero(x, 0))
+                    minterms[ct++] = x;
+            PrimeGenerator heap = new PrimeGenerator(n, false);
+            PrimeGenerator direct = new PrimeGenerator(n, true);
+            heap.generate(minterms, ct);
+            direct.generate(minterms, ct);
+            String label = n + " variables";
+            assertEquals(label, heap.size(), direct.size());
+            assertArrayEquals(label, heap.getCubes(), direct.getCubes());
+            assertArrayEquals(label, heap.getCovered(), direct.getCovered());
+            assertArrayEquals(label, heap.getCubesPerLevel(), direct.getCubesPerLevel());
+            // the store expects twice the minterms, past that it adds chunks
+            grown |= heap.size() > 2 * ct;
+        }
+        assertTrue(grown);
+    }
+}
@@ -0,0 +1,88 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GreedyCoverTest {
+
+    private static long solve(long[] primeCols, int columns, long[] cost) {
+        GreedyCover greedy = new GreedyCover(primeCols.length, columns);
+        for (int p = 0; p < primeCols.length; p++) {
+            greedy.setCost(p, cost[p]);
+            for (int c = 0; c < columns; c++)
+                if ((primeCols[p] & (1L << c)) != 0L)
+                    greedy.set(p, c);
+        }
+        long[] cover = greedy.solve();
+        assertNotNull(cover);
+        return cover[0];
+    }
+
+    @Test
+    public void coverIsIrredundantAndNotCheaperThanTheCheapest() {
+        Random r = new Random(13);
+        for (int it = 0; it < 300; it++) {
+            int primes = 2 + r.nextInt(15);
+            int columns = 1 + r.nextInt(40);
+            long[] chart = TestFunctions.chart(primes, columns, 0.05 + 0.3 * r.nextDouble(), r);
+            long[] cost = TestFunctions.costs(primes, r);
+            long cover = solve(chart, columns, cost);
+            // every irredundant cover is a cover, none of them can lose a prime implicant
+            assertTrue(TestFunctions.irredundant(chart, columns).contains(cover));
+            long min = TestFunctions.cost(TestFunctions.cheapest(chart, columns, cost).get(0), cost);
+            assertTrue(TestFunctions.cost(cover, cost) >= min);
+        }
+    }
+
+    @Test
+    public void uncoverableChartHasNoCover() {
+        GreedyCover greedy = new GreedyCover(2, 3);
+        greedy.setCost(0, 1);
+        greedy.setCost(1, 1);
+        greedy.set(0, 0);
+        greedy.set(1, 1);
+        assertNull(greedy.solve());
+    }
+
+    @Test
+    public void everyEngineCoversTheFunction() {
+        Random r = new Random(14);
+        for (int it = 0; it < 60; it++) {
+            int n = 2 + r.nextInt(4);
+            TruthTable t = TestFunctions.random(n, 2, 0.2 + 0.6 * r.nextDouble(), 0.3 * r.nextDouble(), r);
+            boolean all = r.nextBoolean();
+            for (CoverEngine engine : CoverEngine.values()) {
+                Solver solver = TestFunctions.solver(t, all, r.nextBoolean());
+                solver.setCoverEngine(engine);
+                solver.run();
+                for (int f = 0; f < 2; f++) {
+                    Solutions sol = solver.solutions.get(f);
+                    if (sol.getEssentialsPI() == null)
+                        continue; // constant
+                    int count = sol.getPrimeI() == null ? 1 : sol.getPrimeI().size();
+                    if (engine == CoverEngine.GREEDY)
+                        assertTrue(count <= 1);
+                    for (int j = 0; j < count; j++)
+                        TestFunctions.assertCovers(t, f, TestFunctions.cover(solver, f, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void greedyCoverOfACoreIsNotMinimal() {
+        Solver solver = TestFunctions.solver(TestFunctions.cyclic(4), false);
+        solver.setCoverEngine(CoverEngine.GREEDY);
+        solver.run();
+        assertEquals(1, solver.solutions.get(0).getPrimeI().size());
+        TestFunctions.assertCovers(TestFunctions.cyclic(4), 0, TestFunctions.cover(solver, 0, 0));
+        assertFalse(solver.isMinimal());
+    }
+}
@@ -0,0 +1,161 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GroupOutlineTest {
+
+    private static final int LEFT = GroupOutline.OPEN_LEFT;
+    private static final int RIGHT = GroupOutline.OPEN_RIGHT;
+    private static final int TOP = GroupOutline.OPEN_TOP;
+    private static final int BOTTOM = GroupOutline.OPEN_BOTTOM;
+
+    private static int gray(int i) {
+        return i ^ (i >>> 1);
+    }
+
+    /*
+     * 4x4 sub-maps of the last four variables like a map of 4 variables, the
+     * fifth variable picks the row of sub-maps and the sixth the column
+     */
+    private static KarnaughLayout layout(int n) {
+        int rows = n > 4 ? 8 : 4;
+        int cols = n > 5 ? 8 : 4;
+        int[] cells = new int[rows * cols];
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                cells[r * cols + c] = (r / 4) << 4 | (c / 4) << 5 | gray(r % 4) << 2 | gray(c % 4);
+        return new KarnaughLayout(n, cols, cells);
+    }
+
+    private static GroupOutline outline(int n, int v, int m) {
+        return GroupOutline.of(v, m, layout(n), 4, 4);
+    }
+
+    private static void assertRect(GroupOutline outline, int i, int row, int col, int rows, int cols, int open) {
+        assertEquals("row", row, outline.getRow(i));
+        assertEquals("col", col, outline.getCol(i));
+        assertEquals("rows", rows, outline.getRows(i));
+        assertEquals("cols", cols, outline.getCols(i));
+        assertEquals("open sides", open, outline.getOpenSides(i));
+    }
+
+    @Test
+    public void groupInsideTheMapIsClosed() {
+        // 5, 7, 13 and 15: the 2x2 square in the middle
+        GroupOutline outline = outline(4, 5, 0b1010);
+        assertEquals(1, outline.getCount());
+        assertRect(outline, 0, 1, 1, 2, 2, 0);
+        // a whole row goes on only into itself
+        outline = outline(4, 4, 0b0011);
+        assertEquals(1, outline.getCount());
+        assertRect(outline, 0, 1, 0, 1, 4, 0);
+    }
+
+    @Test
+    public void groupWrapsLeftAndRight() {
+        // 0 and 2: first and last column of the first row
+        GroupOutline outline = outline(4, 0, 0b0010);
+        assertEquals(2, outline.getCount());
+        assertRect(outline, 0, 0, 0, 1, 1, LEFT);
+        assertRect(outline, 1, 0, 3, 1, 1, RIGHT);
+    }
+
+    @Test
+    public void groupWrapsTopAndBottom() {
+        // 1, 3, 9 and 11: middle columns of the first and last rows
+        GroupOutline outline = outline(4, 1, 0b1010);
+        assertEquals(2, outline.getCount());
+        assertRect(outline, 0, 0, 1, 1, 2, TOP);
+        assertRect(outline, 1, 3, 1, 1, 2, BOTTOM);
+    }
+
+    @Test
+    public void cornersAreOpenOnTwoSides() {
+        // 0, 2, 8 and 10
+        GroupOutline outline = outline(4, 0, 0b1010);
+        assertEquals(4, outline.getCount());
+        assertRect(outline, 0, 0, 0, 1, 1, LEFT | TOP);
+        assertRect(outline, 1, 0, 3, 1, 1, RIGHT | TOP);
+        assertRect(outline, 2, 3, 0, 1, 1, LEFT | BOTTOM);
+        assertRect(outline, 3, 3, 3, 1, 1, RIGHT | BOTTOM);
+    }
+
+    @Test
+    public void fiveVariablesCutBetweenSubMaps() {
+        // 5, 7, 21 and 23: the same 2 cells of both sub-maps, off their
+        // edges, are closed although the group goes on in the other one
+        GroupOutline outline = outline(5, 5, 0b10010);
+        assertEquals(2, outline.getCount());
+        assertRect(outline, 0, 1, 1, 1, 2, 0);
+        assertRect(outline, 1, 5, 1, 1, 2, 0);
+        // first row of both sub-maps, open toward the other one
+        outline = outline(5, 0, 0b10011);
+        assertEquals(2, outline.getCount());
+        assertRect(outline, 0, 0, 0, 1, 4, TOP);
+        assertRect(outline, 1, 4, 0, 1, 4, TOP);
+        // a whole column of both sub-maps stops at the edge between them
+        outline = outline(5, 0, 0b11100);
+        assertEquals(2, outline.getCount());
+        assertRect(outline, 0, 0, 0, 4, 1, TOP | BOTTOM);
+        assertRect(outline, 1, 4, 0, 4, 1, TOP | BOTTOM);
+    }
+
+    @Test
+    public void sixVariablesCutBetweenSubMaps() {
+        // first column of the four sub-maps
+        GroupOutline outline = outline(6, 0, 0b110000);
+        assertEquals(4, outline.getCount());
+        assertRect(outline, 0, 0, 0, 1, 1, LEFT | TOP);
+        assertRect(outline, 1, 0, 4, 1, 1, LEFT | TOP);
+        assertRect(outline, 2, 4, 0, 1, 1, LEFT | TOP);
+        assertRect(outline, 3, 4, 4, 1, 1, LEFT | TOP);
+        // first and last column of the first row of both sub-maps side by side,
+        // wrapping in each one
+        outline = outline(6, 0, 0b100010);
+        assertEquals(4, outline.getCount());
+        assertRect(outline, 0, 0, 0, 1, 1, LEFT);
+        assertRect(outline, 1, 0, 3, 1, 1, RIGHT);
+        assertRect(outline, 2, 0, 4, 1, 1, LEFT);
+        assertRect(outline, 3, 0, 7, 1, 1, RIGHT);
+    }
+
+    @Test
+    public void rectanglesCoverTheGroupOnce() {
+        Random r = new Random(1);
+        for (int n = 4; n <= 6; n++) {
+            KarnaughLayout layout = layout(n);
+            for (int it = 0; it < 200; it++) {
+                int m = r.nextInt(1 << n);
+                int v = r.nextInt(1 << n) & ~m;
+                GroupOutline outline = GroupOutline.of(v, m, layout, 4, 4);
+                boolean[] seen = new boolean[layout.getCellCount()];
+                for (int i = 0; i < outline.getCount(); i++) {
+                    int row = outline.getRow(i);
+                    int col = outline.getCol(i);
+                    // never across the edge of a sub-map
+                    assertEquals(row / 4, (row + outline.getRows(i) - 1) / 4);
+                    assertEquals(col / 4, (col + outline.getCols(i) - 1) / 4);
+                    for (int y = row; y < row + outline.getRows(i); y++) {
+                        for (int x = col; x < col + outline.getCols(i); x++) {
+                            int cell = y * layout.getCols() + x;
+                            assertFalse(seen[cell]);
+                            seen[cell] = true;
+                            assertTrue(((layout.minterm(cell) ^ v) & ~m) == 0);
+                        }
+                    }
+                }
+                int cells = 0;
+                for (boolean s : seen)
+                    if (s)
+                        cells++;
+                assertEquals(1 << Integer.bitCount(m), cells);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MinimalCoversTest {
+
+    private static Solver solve(TruthTable t, boolean all, CoverEngine engine, int limit) {
+        Solver solver = TestFunctions.solver(t, all);
+        solver.setCoverEngine(engine);
+        solver.setSolutionLimit(limit);
+        solver.Solve();
+        return solver;
+    }
+
+    private static List<ArrayList<Implicant>> list(Iterable<ArrayList<Implicant>> covers) {
+        List<ArrayList<Implicant>> lst = new ArrayList<>();
+        for (ArrayList<Implicant> cover : covers)
+            lst.add(cover);
+        return lst;
+    }
+
+    @Test
+    public void coversAreTheSolutions() {
+        TruthTable t = TestFunctions.cyclic(4);
+        for (CoverEngine engine : new CoverEngine[]{CoverEngine.PETRICK, CoverEngine.BRANCH_AND_BOUND}) {
+            Solver solver = solve(t, true, engine, 0);
+            List<ArrayList<Implicant>> covers = list(solver.getMinimalCovers(0));
+            assertTrue(engine.name(), covers.size() > 1);
+            assertEquals(engine.name(), solver.solutions.get(0).getPrimeI(), covers);
+            for (int j = 0; j < covers.size(); j++)
+                TestFunctions.assertCovers(t, 0, TestFunctions.cover(solver, 0, j));
+        }
+    }
+
+    @Test
+    public void limitStopsAfterK() {
+        MinimalCovers covers = solve(TestFunctions.cyclic(4), true, CoverEngine.BRANCH_AND_BOUND, 0).getMinimalCovers(0);
+        int all = list(covers).size();
+        assertEquals(3, list(covers.limit(3)).size());
+        assertEquals(all, list(covers.limit(all + 1)).size());
+        assertEquals(0, list(covers.limit(0)).size());
+        // a limit of a limit keeps the smaller one
+        assertEquals(2, list(covers.limit(2).limit(5)).size());
+        assertEquals(list(covers).subList(0, 3), list(covers.limit(3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLimitIsRejected() {
+        solve(TestFunctions.cyclic(3), true, CoverEngine.BRANCH_AND_BOUND, 0).getMinimalCovers(0).limit(-1);
+    }
+
+    @Test
+    public void iteratorStartsOver() {
+        MinimalCovers covers = solve(TestFunctions.cyclic(4), true, CoverEngine.BRANCH_AND_BOUND, 0).getMinimalCovers(0);
+        Iterator<ArrayList<Implicant>> first = covers.iterator();
+        ArrayList<Implicant> a = first.next();
+        first.next();
+        Iterator<ArrayList<Implicant>> second = covers.iterator();
+        assertEquals(a, second.next());
+        assertEquals(list(covers), list(covers));
+    }
+
+    @Test
+    public void solutionLimitLeavesTheOthersToTake() {
+        for (CoverEngine engine : new CoverEngine[]{CoverEngine.PETRICK, CoverEngine.BRANCH_AND_BOUND}) {
+            Solver all = solve(TestFunctions.cyclic(4), true, engine, 0);
+            Solver limited = solve(TestFunctions.cyclic(4), true, engine, 2);
+            ArrayList<ArrayList<Implicant>> primeI = limited.solutions.get(0).getPrimeI();
+            assertEquals(engine.name(), 2, primeI.size());
+            List<ArrayList<Implicant>> covers = list(limited.getMinimalCovers(0));
+            assertEquals(engine.name(), list(all.getMinimalCovers(0)), covers);
+            assertEquals(engine.name(), primeI, covers.subList(0, 2));
+        }
+    }
+
+    @Test
+    public void oneSolutionIsOneCover() {
+        Solver solver = solve(TestFunctions.cyclic(4), false, CoverEngine.BRANCH_AND_BOUND, 0);
+        List<ArrayList<Implicant>> covers = list(solver.getMinimalCovers(0));
+        assertEquals(1, covers.size());
+        assertEquals(solver.solutions.get(0).getPrimeI(), covers);
+    }
+
+    @Test
+    public void essentialsAloneLeaveNoCovers() {
+        TruthTable t = new TruthTable(3, 1);
+        t.set(0, 0, '1');
+        t.set(7, 0, '1');
+        Solver solver = solve(t, true, CoverEngine.BRANCH_AND_BOUND, 0);
+        assertNull(solver.getMinimalCovers(0));
+        assertFalse(solver.solutions.get(0).getEssentialsPI().isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PetrickExpanderTest {
+
+    /*
+     * The product of the sums of every column of the chart
+     */
+    static PetrickExpander expand(long[] primeCols, int columns) {
+        PetrickExpander product = new PetrickExpander(primeCols.length);
+        int[] clause = new int[primeCols.length];
+        for (int c = 0; c < columns; c++) {
+            int ct = 0;
+            for (int p = 0; p < primeCols.length; p++)
+                if ((primeCols[p] & (1L << c)) != 0L)
+                    clause[ct++] = p;
+            product.multiply(clause, ct);
+        }
+        return product;
+    }
+
+    /*
+     * Terms of at most 64 prime implicants, as one word each
+     */
+    static TreeSet<Long> terms(PetrickExpander product, int primes) {
+        TreeSet<Long> terms = new TreeSet<>();
+        for (int j = 0; j < product.size(); j++) {
+            long t = 0L;
+            for (int p = 0; p < primes; p++)
+                if (product.contains(j, p))
+                    t |= 1L << p;
+            assertTrue("repeated term", terms.add(t));
+        }
+        return terms;
+    }
+
+    /*
+     * The cheapest terms, what Solver keeps
+     */
+    static TreeSet<Long> cheapest(PetrickExpander product, long[] cost) {
+        long min = Long.MAX_VALUE;
+        for (long t : terms(product, cost.length))
+            min = Math.min(min, TestFunctions.cost(t, cost));
+        TreeSet<Long> cheapest = new TreeSet<>();
+        for (long t : terms(product, cost.length))
+            if (TestFunctions.cost(t, cost) == min)
+                cheapest.add(t);
+        return cheapest;
+    }
+
+    @Test
+    public void productHoldsEveryIrredundantCover() {
+        Random r = new Random(3);
+        for (int it = 0; it < 200; it++) {
+            int primes = 2 + r.nextInt(13);
+            int columns = 1 + r.nextInt(20);
+            long[] chart = TestFunctions.chart(primes, columns, 0.1 + 0.4 * r.nextDouble(), r);
+            assertEquals(new TreeSet<>(TestFunctions.irredundant(chart, columns)), terms(expand(chart, columns), primes));
+        }
+    }
+
+    @Test
+    public void cheapestTermsAreTheCheapestCovers() {
+        Random r = new Random(4);
+        for (int it = 0; it < 200; it++) {
+            int primes = 2 + r.nextInt(15);
+            int columns = 1 + r.nextInt(30);
+            long[] chart = TestFunctions.chart(primes, columns, 0.1 + 0.3 * r.nextDouble(), r);
+            long[] cost = TestFunctions.costs(primes, r);
+            assertEquals(new TreeSet<>(TestFunctions.cheapest(chart, columns, cost)), cheapest(expand(chart, columns), cost));
+        }
+    }
+
+    @Test
+    public void moreThan64Primes() {
+        // column c is covered by prime implicants 2c and 2c + 1: 2^columns terms of columns each
+        int columns = 40;
+        PetrickExpander product = new PetrickExpander(2 * columns);
+        for (int c = 0; c < 12; c++)
+            product.multiply(new int[]{2 * c, 2 * c + 1}, 2);
+        assertEquals(1 << 12, product.size());
+        for (int c = 12; c < columns; c++)
+            product.multiply(new int[]{2 * c}, 1);
+        assertEquals(1 << 12, product.size());
+        for (int j = 0; j < product.size(); j++) {
+            assertEquals(columns, product.bitCount(j));
+            for (int c = 12; c < columns; c++) {
+                assertTrue(product.contains(j, 2 * c));
+                assertFalse(product.contains(j, 2 * c + 1));
+            }
+        }
+        // a prime implicant of every term absorbs the new clause
+        product.multiply(new int[]{2 * columns - 2, 5}, 2);
+        assertEquals(1 << 12, product.size());
+    }
+
+    @Test
+    public void emptyProductIsOneEmptyTerm() {
+        PetrickExpander product = new PetrickExpander(100);
+        assertEquals(1, product.size());
+        assertEquals(0, product.bitCount(0));
+    }
+
+    @Test
+    public void tooManyTermsLeavesTheProduct() {
+        PetrickExpander product = new PetrickExpander(20);
+        for (int c = 0; c < 3; c++)
+            product.multiply(new int[]{2 * c, 2 * c + 1}, 2);
+        List<Long> before = new ArrayList<>(terms(product, 20));
+        SolveBudget.Tracker tracker = new SolveBudget(0L, 10, 0).track(System.nanoTime());
+        assertFalse(product.multiply(new int[]{6, 7}, 2, tracker));
+        assertTrue(tracker.isExceeded());
+        assertEquals(before, new ArrayList<>(terms(product, 20)));
+    }
+}
@@ -0,0 +1,152 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrimeGeneratorTest {
+
+    /*
+     * Solves with packed cubes or the array of Implicant
+     */
+    private static Solver solve(TruthTable t, boolean sop, boolean packed) {
+        int n = t.getNumberOfInVar();
+        int[] order = new int[Implicant.MAX_IN_VAR];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Solver solver = new Solver(t, Arrays.copyOf(TestFunctions.NAMES, n), new String[]{"F", "G"}, sop, false, true,
+                false, false, false, order);
+        solver.setPackedPrimes(packed);
+        solver.Solve();
+        return solver;
+    }
+
+    /*
+     * The essential prime implicants and the solution of output f, in
+     * their order
+     */
+    private static String implicants(Solver solver, int f) {
+        Solutions sol = solver.solutions.get(f);
+        StringBuilder buf = new StringBuilder();
+        if (sol.getEssentialsPI() != null)
+            for (Implicant p : sol.getEssentialsPI())
+                buf.append(p.getV()).append('/').append(p.getM()).append(' ');
+        buf.append('|');
+        if (sol.getPrimeI() != null)
+            for (ArrayList<Implicant> cover : sol.getPrimeI())
+                for (Implicant p : cover)
+                    buf.append(' ').append(p.getV()).append('/').append(p.getM());
+        return buf.toString();
+    }
+
+    /*
+     * Same implicants, prime or not, and the same prime implicants in the
+     * same order, so the same solution
+     */
+    private static void assertSameAsArray(TruthTable t, boolean sop) {
+        Solver packed = solve(t, sop, true);
+        Solver array = solve(t, sop, false);
+        String label = t.getNumberOfInVar() + " variables, sop " + sop;
+        for (int f = 0; f < t.getNumberOfOutVar(); f++) {
+            assertEquals(label, implicants(array, f), implicants(packed, f));
+            SolveMetrics.Output p = packed.getMetrics().getOutput(f);
+            SolveMetrics.Output a = array.getMetrics().getOutput(f);
+            assertArrayEquals(label, a.getCubesPerLevel(), p.getCubesPerLevel());
+            assertEquals(label, a.getPrimes(), p.getPrimes());
+        }
+    }
+
+    /*
+     * Past 4 variables, cubes of up to 3 dimensions none of which touches
+     * another: every prime implicant is essential and the cover is left
+     * out of the comparison
+     */
+    private static TruthTable table(int n, Random r) {
+        if (n <= 4)
+            return TestFunctions.random(n, 2, 0.2 + 0.6 * r.nextDouble(), 0.2 * r.nextDouble(), r);
+        TruthTable t = new TruthTable(n, 2);
+        int mx = 1 << n;
+        for (int f = 0; f < 2; f++) {
+            // the last minterm and the highest variable first, then random cubes
+            place(t, f, mx - 1, 0, '1');
+            place(t, f, mx >>> 1, 0, '1');
+            for (int i = 0; i < Math.min(100, mx >>> 3); i++) {
+                int m = 0;
+                for (int d = 1 + r.nextInt(4); d > 1; d--)
+                    m |= 1 << r.nextInt(n);
+                place(t, f, r.nextInt(mx) & ~m, m, i % 5 == 0 ? Solver.DONT_CARE_CHAR : '1');
+            }
+        }
+        return t;
+    }
+
+    /*
+     * Sets the cube v/m of output f to c unless a minterm of the cube or
+     * next to it is already set
+     */
+    private static void place(TruthTable t, int f, int v, int m, char c) {
+        for (int s = m; ; s = (s - 1) & m) {
+            if (!t.isZero(v | s, f))
+                return;
+            for (int i = 0; i < t.getNumberOfInVar(); i++)
+                if (!t.isZero((v | s) ^ (1 << i), f))
+                    return;
+            if (s == 0)
+                break;
+        }
+        for (int s = m; ; s = (s - 1) & m) {
+            t.set(v | s, f, c);
+            if (s == 0)
+                break;
+        }
+    }
+
+    @Test
+    public void packedMatchesArrayForEveryWidth() {
+        Random r = new Random(1);
+        // the array version sorts by (v1 - v2) << 16, which overflows at 16 variables
+        for (int n = 1; n < Implicant.MAX_IN_VAR; n++) {
+            for (int it = 0; it < (n <= 8 ? 20 : 3); it++) {
+                TruthTable t = table(n, r);
+                assertSameAsArray(t, true);
+                if (n <= 4) // past that the zeros are most of the table
+                    assertSameAsArray(t, false);
+            }
+        }
+    }
+
+    @Test
+    public void packRoundTripsSixteenVariables() {
+        int[][] cubes = {{0xFFFF, 0}, {0x8000, 0}, {0x7FFF, 0x8000}, {0, 0xFFFF}, {0xFFFE, 1}};
+        for (int[] c : cubes) {
+            int cube = PrimeGenerator.pack(c[0], c[1]);
+            assertEquals(c[0], PrimeGenerator.value(cube));
+            assertEquals(c[1], PrimeGenerator.mask(cube));
+        }
+        // the last minterm packs to a negative cube, not the empty slot -1
+        assertTrue(PrimeGenerator.pack(0xFFFF, 0) < 0);
+        assertFalse(PrimeGenerator.pack(0xFFFF, 0) == -1);
+    }
+
+    @Test
+    public void signBitCubesMerge() {
+        int[] minterms = {0x7FFF, 0x8000, 0xFFFE, 0xFFFF};
+        PrimeGenerator generator = new PrimeGenerator(16);
+        generator.generate(minterms, minterms.length);
+        ArrayList<Implicant> primes = generator.getPrimes();
+        ArrayList<String> found = new ArrayList<>();
+        for (Implicant p : primes)
+            found.add(Integer.toHexString(p.getV() & ~p.getM()) + "/" + Integer.toHexString(p.getM()));
+        found.sort(null);
+        assertEquals(Arrays.asList("7fff/8000", "8000/0", "fffe/1"), found);
+        assertEquals(3, generator.primeCount());
+        assertArrayEquals(new int[]{4, 2}, generator.getCubesPerLevel());
+    }
+}
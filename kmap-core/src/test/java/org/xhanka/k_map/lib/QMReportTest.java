@@ -0,0 +1,75 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QMReportTest {
+
+    private static QMReport report(TruthTable t, boolean sop) {
+        int n = t.getNumberOfInVar();
+        int[] order = new int[Implicant.MAX_IN_VAR];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Solver solver = new Solver(t, Arrays.copyOf(TestFunctions.NAMES, n), new String[]{"F", "G"}, sop, false, true,
+                false, false, true, order);
+        solver.Solve();
+        return solver.getQMReport();
+    }
+
+    private static String pages(QMReport report) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        for (int page = 0; page < report.getPageCount(); page++)
+            report.renderPage(page, buf);
+        return buf.toString();
+    }
+
+    @Test
+    public void everyPageRendersTheWholeReport() throws IOException {
+        Random r = new Random(1);
+        int pages = 0;
+        // past 5 variables a dense table can take minutes in Petrick's product
+        for (int n = 1; n <= 5; n++) {
+            for (int it = 0; it < 5; it++) {
+                TruthTable t = TestFunctions.random(n, 2, 0.2 + 0.6 * r.nextDouble(), 0.2 * r.nextDouble(), r);
+                for (boolean sop : new boolean[]{true, false}) {
+                    QMReport report = report(t, sop);
+                    assertEquals(n + " variables", report.toString(), pages(report));
+                    pages = Math.max(pages, report.getPageCount());
+                }
+            }
+        }
+        assertTrue(pages > 1);
+    }
+
+    @Test
+    public void implicantsListTheirMinterms() throws IOException {
+        // 0 and 2 merge into 0/2: bit 0 of the mask is clear
+        TruthTable t = new TruthTable(3, 2);
+        t.set(0, 0, '1');
+        t.set(2, 0, '1');
+        t.set(5, 1, '1');
+        t.set(7, 1, '1');
+        String page = pages(report(t, true));
+        assertTrue(page.contains("align=\"right\">0, 2</td>"));
+        assertTrue(page.contains("align=\"right\">5, 7</td>"));
+    }
+
+    @Test
+    public void expansionFollowsTheProductOfTheCore() throws IOException {
+        TruthTable t = new TruthTable(4, 1);
+        for (int x : new int[]{3, 5, 6, 7, 11, 12, 13, 14})
+            t.set(x, 0, '1');
+        String page = pages(report(t, true));
+        // G covers only what D or F cover, the core leaves it out
+        assertTrue(page.contains("(E + F) . (C + D) . (D + F + G) . (A + B) . (B + E) . (A + C)<br>"
+                + "(E + F) . (C + D) . (D + F) . (A + B) . (B + E) . (A + C)"
+                + " = A.D.E + B.C.D.E + A.C.E.F + B.C.F + A.B.D.F<br>"
+                + "A.D.E + B.C.F<br><br>"));
+    }
+}
@@ -0,0 +1,133 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SolutionCacheTest {
+
+    private static TruthTable table(long seed) {
+        return TestFunctions.random(4, 2, 0.5, 0.1, new Random(seed));
+    }
+
+    private static Solver solver(TruthTable t, CoverEngine engine) {
+        Solver solver = TestFunctions.solver(t, false);
+        solver.setCoverEngine(engine);
+        return solver;
+    }
+
+    @Test
+    public void sameTableIsAHit() {
+        SolutionCache cache = new SolutionCache(4);
+        SolutionCache.Key key = solver(table(1), CoverEngine.PETRICK).cacheKey();
+        assertEquals(key, solver(table(1), CoverEngine.PETRICK).cacheKey());
+        assertEquals(key.hashCode(), solver(table(1), CoverEngine.PETRICK).cacheKey().hashCode());
+
+        SolutionCache.Entry e = cache.solve(solver(table(1), CoverEngine.PETRICK));
+        assertSame(e, cache.solve(solver(table(1), CoverEngine.PETRICK)));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void otherTableOrOptionsIsAMiss() {
+        SolutionCache.Key key = solver(table(1), CoverEngine.PETRICK).cacheKey();
+        assertNotEquals(key, solver(table(2), CoverEngine.PETRICK).cacheKey());
+        assertNotEquals(key, TestFunctions.solver(table(1), true).cacheKey());
+        assertNotEquals(key, TestFunctions.solver(table(1), false, false).cacheKey());
+        for (CoverEngine engine : CoverEngine.values())
+            if (engine != CoverEngine.PETRICK)
+                assertNotEquals(engine.name(), key, solver(table(1), engine).cacheKey());
+
+        SolutionCache cache = new SolutionCache(4);
+        SolutionCache.Entry e = cache.solve(solver(table(1), CoverEngine.PETRICK));
+        assertNotSame(e, cache.solve(solver(table(2), CoverEngine.PETRICK)));
+        assertNotSame(e, cache.solve(solver(table(1), CoverEngine.BRANCH_AND_BOUND)));
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedGoesFirst() {
+        SolutionCache cache = new SolutionCache(2);
+        SolutionCache.Entry a = cache.solve(solver(table(1), CoverEngine.PETRICK));
+        cache.solve(solver(table(2), CoverEngine.PETRICK));
+        assertSame(a, cache.solve(solver(table(1), CoverEngine.PETRICK)));
+        // over capacity, 2 was used last before 1
+        cache.solve(solver(table(3), CoverEngine.PETRICK));
+        assertEquals(2, cache.size());
+        assertSame(a, cache.solve(solver(table(1), CoverEngine.PETRICK)));
+        assertEquals(2, cache.getHits());
+        cache.solve(solver(table(2), CoverEngine.PETRICK));
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void notMinimalIsNotKept() {
+        SolutionCache cache = new SolutionCache(4);
+        Solver solver = solver(TestFunctions.cyclic(4), CoverEngine.GREEDY);
+        SolutionCache.Entry e = cache.solve(solver);
+        assertFalse(solver.isMinimal());
+        assertEquals(0, cache.size());
+        assertNotSame(e, cache.solve(solver(TestFunctions.cyclic(4), CoverEngine.GREEDY)));
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void truncatedListIsNotKept() {
+        SolutionCache cache = new SolutionCache(4);
+        Solver solver = TestFunctions.solver(TestFunctions.cyclic(9), true);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.setBudget(new SolveBudget(1500L, 0, 0));
+        cache.solve(solver);
+        assertTrue(solver.isMinimal());
+        assertTrue(solver.isTruncated());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void runOutOfMemoryIsNotKept() {
+        TruthTable t = table(1);
+        int[] order = new int[Implicant.MAX_IN_VAR];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Solver solver = new Solver(t, new String[]{"A", "B", "C", "D"}, new String[]{"F0", "F1"}, true, false, true,
+                false, false, false, order) {
+            @Override
+            public void Format() {
+                throw new OutOfMemoryError("formatting");
+            }
+        };
+        SolutionCache cache = new SolutionCache(4);
+        cache.solve(solver);
+        assertTrue(solver.isFailed());
+        assertEquals(0, cache.size());
+        // the same table and options, solved whole this time
+        Solver again = solver(t, CoverEngine.PETRICK);
+        assertEquals(solver.cacheKey(), again.cacheKey());
+        cache.solve(again);
+        assertFalse(again.isFailed());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void clearEmptiesTheCache() {
+        SolutionCache cache = new SolutionCache(4);
+        SolutionCache.Entry e = cache.solve(solver(table(1), CoverEngine.PETRICK));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(e, cache.solve(solver(table(1), CoverEngine.PETRICK)));
+    }
+}
@@ -0,0 +1,145 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolveBudgetTest {
+
+    // far below what Petrick's Method needs on the tables below, seconds
+    private static final long DEADLINE_MILLIS = 300L;
+    // time past the deadline allowed for the last check and the fallback
+    private static final long SLACK_MILLIS = 700L;
+
+    private static TruthTable dense(int outputs) {
+        return TestFunctions.random(8, outputs, 0.5, 0.1, new Random(4));
+    }
+
+    private static void assertBounded(Solver solver, TruthTable t, long deadline) {
+        long start = System.nanoTime();
+        solver.Solve();
+        long millis = (System.nanoTime() - start) / 1000000L;
+        assertTrue("took " + millis + " ms", millis < deadline + SLACK_MILLIS);
+        assertFalse(solver.isMinimal());
+        for (int f = 0; f < t.getNumberOfOutVar(); f++) {
+            assertTrue(solver.getMetrics().getOutput(f).isBudgetExceeded());
+            TestFunctions.assertCovers(t, f, TestFunctions.cover(solver, f, 0));
+        }
+    }
+
+    @Test
+    public void deadlineBoundsPetrick() {
+        TruthTable t = dense(1);
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setBudget(new SolveBudget(DEADLINE_MILLIS, 200000, 2000000));
+        assertBounded(solver, t, DEADLINE_MILLIS);
+    }
+
+    @Test
+    public void deadlineIsSharedByOutputs() {
+        TruthTable t = dense(3);
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setBudget(new SolveBudget(DEADLINE_MILLIS, 0, 0));
+        assertBounded(solver, t, DEADLINE_MILLIS);
+    }
+
+    @Test
+    public void deadlineBoundsBranchAndBound() {
+        TruthTable t = TestFunctions.random(10, 1, 0.5, 0.1, new Random(4));
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.setBudget(new SolveBudget(DEADLINE_MILLIS, 0, 0));
+        assertBounded(solver, t, DEADLINE_MILLIS);
+    }
+
+    @Test
+    public void maxTermsFallsBackToGreedy() {
+        TruthTable t = TestFunctions.cyclic(6);
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setBudget(new SolveBudget(0L, 1000, 0));
+        solver.Solve();
+        assertFalse(solver.isMinimal());
+        assertTrue(solver.isTruncated());
+        assertEquals(1, solver.solutions.get(0).getPrimeI().size());
+        TestFunctions.assertCovers(t, 0, TestFunctions.cover(solver, 0, 0));
+    }
+
+    @Test
+    public void listCutShortIsStillMinimal() {
+        // 8! cheapest covers, the cheapest cost is known long before they are all listed
+        TruthTable t = TestFunctions.cyclic(9);
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.setBudget(new SolveBudget(1500L, 0, 0));
+        solver.Solve();
+        assertTrue(solver.getMetrics().getOutput(0).isBudgetExceeded());
+        assertTrue(solver.isMinimal());
+        assertTrue(solver.isTruncated());
+        int count = solver.solutions.get(0).getPrimeI().size();
+        assertTrue(count + " solutions", count > 0 && count < 40320);
+        long cost = TestFunctions.cost(9, TestFunctions.cover(solver, 0, 0), true);
+        for (int j = 0; j < count; j++) {
+            if (j < 100)
+                TestFunctions.assertCovers(t, 0, TestFunctions.cover(solver, 0, j));
+            assertEquals(cost, TestFunctions.cost(9, TestFunctions.cover(solver, 0, j), true));
+        }
+    }
+
+    @Test
+    public void deadlineBoundsListingTheCovers() {
+        // hundreds of thousands of cheapest covers listed by the deadline,
+        // each one turned into prime implicants in time too
+        TruthTable t = TestFunctions.random(10, 1, 0.1, 0.2, new Random(1));
+        Solver solver = TestFunctions.solver(t, true);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.setBudget(new SolveBudget(1000L, 0, 0));
+        long start = System.nanoTime();
+        solver.Solve();
+        long millis = (System.nanoTime() - start) / 1000000L;
+        assertTrue("took " + millis + " ms", millis < 1000L + SLACK_MILLIS);
+        assertTrue(solver.isMinimal());
+        assertTrue(solver.isTruncated());
+    }
+
+    @Test
+    public void oneSolutionIsNeverTruncated() {
+        Solver solver = TestFunctions.solver(TestFunctions.cyclic(6), false);
+        solver.setBudget(new SolveBudget(0L, 1000, 0));
+        solver.Solve();
+        assertFalse(solver.isMinimal());
+        assertFalse(solver.isTruncated());
+    }
+
+    @Test
+    public void maxCubesKeepsACover() {
+        TruthTable t = TestFunctions.random(10, 1, 0.4, 0.1, new Random(5));
+        for (boolean packed : new boolean[]{true, false}) {
+            Solver solver = TestFunctions.solver(t, false);
+            solver.setPackedPrimes(packed);
+            solver.setBudget(new SolveBudget(10000L, 0, 300));
+            solver.Solve();
+            assertFalse(solver.isMinimal());
+            TestFunctions.assertCovers(t, 0, TestFunctions.cover(solver, 0, 0));
+        }
+    }
+
+    @Test
+    public void generousBudgetChangesNothing() {
+        Random r = new Random(6);
+        for (int it = 0; it < 200; it++) {
+            TruthTable t = TestFunctions.random(2 + r.nextInt(5), 2, 0.4, 0.15, r);
+            Solver free = TestFunctions.solver(t, true);
+            Solver bounded = TestFunctions.solver(t, true);
+            bounded.setBudget(new SolveBudget(60000L, 1 << 20, 1 << 20));
+            free.run();
+            bounded.run();
+            assertTrue(bounded.isMinimal());
+            assertFalse(bounded.isTruncated());
+            assertEquals(free.getSolution(), bounded.getSolution());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SolveMetricsTest {
+
+    /*
+     * The prime implicants of output 0 of t generated without Solver
+     */
+    private static PrimeGenerator generate(TruthTable t) {
+        int n = t.getNumberOfInVar();
+        int[] minterms = new int[1 << n];
+        int ct = 0;
+        for (int x = 0; x < 1 << n; x++)
+            if (!t.isZero(x, 0))
+                minterms[ct++] = x;
+        PrimeGenerator generator = new PrimeGenerator(n);
+        generator.generate(minterms, ct);
+        return generator;
+    }
+
+    @Test
+    public void cyclicFunctionPhases() {
+        TruthTable t = TestFunctions.cyclic(5);
+        PrimeGenerator generator = generate(t);
+        Solver solver = TestFunctions.solver(t, false);
+        assertNull(solver.getMetrics());
+        solver.Solve();
+        SolveMetrics.Output m = solver.getMetrics().getOutput(0);
+
+        assertArrayEquals(generator.getCubesPerLevel(), m.getCubesPerLevel());
+        assertEquals(generator.getComparisons(), m.getComparisons());
+        assertEquals(generator.primeCount(), m.getPrimes());
+        // 30 ones, the edges of the cube then its faces: 20 prime implicants of 2 literals, none essential
+        assertArrayEquals(new int[]{30, 70, 60, 20}, m.getCubesPerLevel());
+        assertEquals(20, m.getPrimes());
+        assertEquals(0, m.getEssentials());
+        assertEquals(20, m.getCorePrimes());
+        assertEquals(30, m.getCoreOnes());
+        assertTrue(m.getPetrickPeak() > 0);
+        assertTrue(m.getPrimeNanos() > 0L && m.getCoverNanos() > 0L);
+        assertTrue(solver.getMetrics().getSolveNanos() >= m.getCoverNanos());
+        assertEquals(0L, solver.getMetrics().getFormatNanos());
+    }
+
+    @Test
+    public void essentialsLeaveNoCore() {
+        // ones 0, 1, 3 and 7: A'B' and BC are essential and cover A'C
+        TruthTable t = new TruthTable(3, 1);
+        for (int x : new int[]{0, 1, 3, 7})
+            t.set(x, 0, '1');
+        PrimeGenerator generator = generate(t);
+        Solver solver = TestFunctions.solver(t, false);
+        solver.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+        solver.Solve();
+        SolveMetrics.Output m = solver.getMetrics().getOutput(0);
+
+        assertArrayEquals(generator.getCubesPerLevel(), m.getCubesPerLevel());
+        assertEquals(generator.getComparisons(), m.getComparisons());
+        assertArrayEquals(new int[]{4, 3}, m.getCubesPerLevel());
+        assertEquals(3, m.getPrimes());
+        assertEquals(2, m.getEssentials());
+        assertEquals(0, m.getCorePrimes());
+        assertEquals(0, m.getCoreOnes());
+        assertEquals(0, m.getPetrickPeak());
+    }
+
+    @Test
+    public void listenerGetsTheMetrics() {
+        final SolveMetrics[] seen = new SolveMetrics[2];
+        Solver solver = TestFunctions.solver(TestFunctions.cyclic(4), false);
+        solver.setSolveListener(new SolveListener() {
+            @Override
+            public void onSolve(SolveMetrics metrics) {
+                seen[0] = metrics;
+            }
+
+            @Override
+            public void onFormat(SolveMetrics metrics) {
+                seen[1] = metrics;
+            }
+        });
+        solver.run();
+        assertSame(solver.getMetrics(), seen[0]);
+        assertSame(seen[0], seen[1]);
+        assertEquals(1, seen[0].getNumberOfOutVar());
+        assertTrue(seen[0].getFormatNanos() > 0L);
+    }
+}
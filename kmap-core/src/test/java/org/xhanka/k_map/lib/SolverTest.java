@@ -0,0 +1,64 @@
+package org.xhanka.k_map.lib;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SolverTest {
+
+    @Test
+    public void formatAgainRedoesTheMaps() {
+        TruthTable t = TestFunctions.random(4, 2, 0.5, 0.1, new Random(1));
+        Solver solver = TestFunctions.solver(t, true);
+        solver.run();
+        assertEquals(2, solver.getColorMaps().size());
+        assertEquals(2, solver.getGroups().size());
+        int[] map = solver.getColorMaps().get(1);
+        int[] colors = map.clone();
+        String solution = solver.getSolution();
+
+        solver.Format();
+        solver.Solve();
+        solver.Format();
+        // one map and one list of groups per output, the map is reused
+        assertEquals(2, solver.getColorMaps().size());
+        assertEquals(2, solver.getGroups().size());
+        assertSame(map, solver.getColorMaps().get(1));
+        assertArrayEquals(colors, map);
+        assertEquals(solution, solver.getSolution());
+    }
+
+    @Test
+    public void parallelSolvesLikeSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random r = new Random(1);
+            for (int n = 2; n <= 5; n++) {
+                for (int it = 0; it < 10; it++) {
+                    TruthTable t = TestFunctions.random(n, 6, 0.2 + 0.6 * r.nextDouble(), 0.2 * r.nextDouble(), r);
+                    Solver serial = TestFunctions.solver(t, true);
+                    serial.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+                    serial.run();
+                    Solver parallel = TestFunctions.solver(t, true);
+                    parallel.setCoverEngine(CoverEngine.BRANCH_AND_BOUND);
+                    parallel.setParallel(pool);
+                    parallel.run();
+                    String label = n + " variables";
+                    assertEquals(label, serial.getSolution(), parallel.getSolution());
+                    for (int f = 0; f < t.getNumberOfOutVar(); f++) {
+                        assertEquals(label, serial.solutions.get(f).getEssentialsPI(), parallel.solutions.get(f).getEssentialsPI());
+                        assertEquals(label, serial.solutions.get(f).getPrimeI(), parallel.solutions.get(f).getPrimeI());
+                        assertArrayEquals(label, serial.getColorMaps().get(f), parallel.getColorMaps().get(f));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
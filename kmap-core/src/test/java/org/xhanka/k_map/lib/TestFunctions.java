@@ -0,0 +1,196 @@
+/*
+ * Truth tables and checks shared by the tests of the solver
+ */
+package org.xhanka.k_map.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+final class TestFunctions {
+
+    static final String[] NAMES = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O", "P"};
+
+    private TestFunctions() {
+    }
+
+    /*
+     * Each minterm is a don't care with probability dontCare, else a one
+     * with probability density
+     */
+    static TruthTable random(int n, int outputs, double density, double dontCare, Random r) {
+        TruthTable t = new TruthTable(n, outputs);
+        for (int f = 0; f < outputs; f++) {
+            for (int x = 0; x < 1 << n; x++) {
+                double d = r.nextDouble();
+                t.set(x, f, d < dontCare ? Solver.DONT_CARE_CHAR : d < dontCare + density * (1 - dontCare) ? '1' : '0');
+            }
+        }
+        return t;
+    }
+
+    /*
+     * True but for all zeros and all ones: every prime implicant has the
+     * same size and none is essential, the worst case of the cover
+     */
+    static TruthTable cyclic(int n) {
+        TruthTable t = new TruthTable(n, 1);
+        for (int x = 0; x < 1 << n; x++)
+            t.set(x, 0, x != 0 && x != (1 << n) - 1 ? '1' : '0');
+        return t;
+    }
+
+    /*
+     * Sum of products, by number of terms
+     */
+    static Solver solver(TruthTable t, boolean all) {
+        return solver(t, all, true);
+    }
+
+    static Solver solver(TruthTable t, boolean all, boolean terms) {
+        int n = t.getNumberOfInVar();
+        String[] in = new String[n];
+        System.arraycopy(NAMES, 0, in, 0, n);
+        String[] out = new String[t.getNumberOfOutVar()];
+        for (int f = 0; f < out.length; f++)
+            out[f] = "F" + f;
+        int[] order = new int[Implicant.MAX_IN_VAR];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        return new Solver(t, in, out, true, all, terms, false, false, false, order);
+    }
+
+    /*
+     * Essential prime implicants of output f and those of its solution j
+     */
+    static List<Implicant> cover(Solver solver, int f, int j) {
+        Solutions sol = solver.solutions.get(f);
+        ArrayList<Implicant> cover = new ArrayList<>(sol.getEssentialsPI());
+        if (sol.getPrimeI() != null)
+            cover.addAll(sol.getPrimeI().get(j));
+        return cover;
+    }
+
+    /*
+     * The implicants cover every one of output f and no zero
+     */
+    static void assertCovers(TruthTable t, int f, List<Implicant> cover) {
+        int n = t.getNumberOfInVar();
+        boolean[] covered = new boolean[1 << n];
+        for (Implicant p : cover) {
+            int m = p.getM();
+            int v = p.getV() & ~m;
+            for (int s = m; ; s = (s - 1) & m) {
+                assertFalse("zero " + (v | s) + " covered by " + v + "/" + m, t.isZero(v | s, f));
+                covered[v | s] = true;
+                if (s == 0)
+                    break;
+            }
+        }
+        for (int x = 0; x < 1 << n; x++)
+            assertTrue("one " + x + " not covered", !t.isOne(x, f) || covered[x]);
+    }
+
+    /*
+     * Same weights as Solver: by number of terms, then of literals, or
+     * the other way round
+     */
+    static long cost(int n, List<Implicant> cover, boolean terms) {
+        long c = 0L;
+        for (Implicant p : cover)
+            c += terms
+                    ? (1L << Implicant.MAX_IN_VAR) + n - p.bitCount_m()
+                    : (((long) (n - p.bitCount_m())) << Implicant.MAX_IN_VAR) + 1L;
+        return c;
+    }
+
+    /*
+     * A prime implicant chart: the columns of each prime implicant, every
+     * column covered by one at least
+     */
+    static long[] chart(int primes, int columns, double density, Random r) {
+        long[] primeCols = new long[primes];
+        for (int p = 0; p < primes; p++)
+            for (int c = 0; c < columns; c++)
+                if (r.nextDouble() < density)
+                    primeCols[p] |= 1L << c;
+        for (int c = 0; c < columns; c++) {
+            boolean covered = false;
+            for (long cols : primeCols)
+                covered |= (cols & (1L << c)) != 0L;
+            if (!covered)
+                primeCols[r.nextInt(primes)] |= 1L << c;
+        }
+        return primeCols;
+    }
+
+    /*
+     * Costs of 2 to 4, so that there are ties
+     */
+    static long[] costs(int primes, Random r) {
+        long[] cost = new long[primes];
+        for (int p = 0; p < primes; p++)
+            cost[p] = 2 + r.nextInt(3);
+        return cost;
+    }
+
+    /*
+     * Columns covered by each set of prime implicants of a chart (at most
+     * 20 prime implicants), the set being the index
+     */
+    private static long[] unions(long[] primeCols) {
+        long[] union = new long[1 << primeCols.length];
+        for (int s = 1; s < union.length; s++)
+            union[s] = union[s & (s - 1)] | primeCols[Integer.numberOfTrailingZeros(s)];
+        return union;
+    }
+
+    /*
+     * Every cheapest cover, by trying every set of prime implicants
+     */
+    static List<Long> cheapest(long[] primeCols, int columns, long[] cost) {
+        long all = columns == 64 ? -1L : (1L << columns) - 1;
+        long[] union = unions(primeCols);
+        long min = Long.MAX_VALUE;
+        ArrayList<Long> covers = new ArrayList<>();
+        for (int s = 0; s < union.length; s++) {
+            if (union[s] != all)
+                continue;
+            long c = cost(s, cost);
+            if (c < min) {
+                min = c;
+                covers.clear();
+            }
+            if (c == min)
+                covers.add((long) s);
+        }
+        return covers;
+    }
+
+    /*
+     * Every cover none of whose prime implicants can be left out
+     */
+    static List<Long> irredundant(long[] primeCols, int columns) {
+        long all = columns == 64 ? -1L : (1L << columns) - 1;
+        long[] union = unions(primeCols);
+        ArrayList<Long> covers = new ArrayList<>();
+        for (int s = 0; s < union.length; s++) {
+            boolean keep = union[s] == all;
+            for (int x = s; x != 0 && keep; x &= x - 1)
+                keep = union[s & ~(x & -x)] != all;
+            if (keep)
+                covers.add((long) s);
+        }
+        return covers;
+    }
+
+    static long cost(long cover, long[] cost) {
+        long c = 0L;
+        for (long x = cover; x != 0L; x &= x - 1)
+            c += cost[Long.numberOfTrailingZeros(x)];
+        return c;
+    }
+}